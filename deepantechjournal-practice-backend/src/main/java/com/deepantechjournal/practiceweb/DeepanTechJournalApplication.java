@@ -2,8 +2,10 @@ package com.deepantechjournal.practiceweb;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class DeepanTechJournalApplication {
     public static void main(String[] args) {
         SpringApplication.run(DeepanTechJournalApplication.class, args);
@@ -2,6 +2,8 @@ package com.deepantechjournal.practiceweb.controllers;
 
 import com.deepantechjournal.practiceweb.repositories.ProductRepository;
 import com.deepantechjournal.practiceweb.repositories.UserRepository;
+import com.deepantechjournal.practiceweb.services.ProductsChangedEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -18,13 +20,16 @@ public class DebugDBController {
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
     private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
     public DebugDBController(UserRepository userRepository,
                              ProductRepository productRepository,
-                             JdbcTemplate jdbcTemplate) {
+                             JdbcTemplate jdbcTemplate,
+                             ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.productRepository = productRepository;
         this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
     }
 
     @GetMapping("/users")
@@ -36,7 +41,7 @@ public class DebugDBController {
     @GetMapping("/products")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> products() {
-        return ResponseEntity.ok(productRepository.findAll());
+        return ResponseEntity.ok(productRepository.findAllDtos());
     }
 
     @PostMapping("/execute")
@@ -55,6 +60,8 @@ public class DebugDBController {
                 return ResponseEntity.ok(result);
             } else {
                 int rows = jdbcTemplate.update(sql);
+                // raw SQL can touch any table, so drop everything cached from it
+                eventPublisher.publishEvent(ProductsChangedEvent.catalogReset());
                 return ResponseEntity.ok(Map.of("status", "success", "rowsAffected", rows));
             }
         } catch (Exception e) {
@@ -1,18 +1,64 @@
 package com.deepantechjournal.practiceweb.controllers;
 
+import com.deepantechjournal.practiceweb.services.UploadReceiver;
+import com.deepantechjournal.practiceweb.services.UploadRejectedException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 @RestController
 @RequestMapping("/api/files")
 @CrossOrigin(origins = "*")
 public class FileController {
 
-    @PostMapping("/upload")
-    public ResponseEntity<String> upload(@RequestParam("file") MultipartFile file) {
-        String info = "File received: " + file.getOriginalFilename() + " (" + file.getSize() + " bytes)";
+    private final long maxFileBytes;
+
+    public FileController(@Value("${app.uploads.limits.file:50MB}") DataSize maxFileSize) {
+        this.maxFileBytes = maxFileSize.toBytes();
+    }
+
+    @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<String> upload(@RequestParam("file") MultipartFile file) throws IOException {
+        if (file.getSize() > maxFileBytes) {
+            return tooLarge();
+        }
+        try (InputStream in = file.getInputStream()) {
+            return received(file.getOriginalFilename(), in);
+        }
+    }
+
+    // Raw body upload: read once through a fixed buffer and never held in memory or spooled
+    @PostMapping(value = "/upload", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<String> uploadBody(@RequestParam(required = false) String name,
+                                             HttpServletRequest request) throws IOException {
+        if (request.getContentLengthLong() > maxFileBytes) {
+            return tooLarge();
+        }
+        return received(name, request.getInputStream());
+    }
+
+    private ResponseEntity<String> received(String name, InputStream in) throws IOException {
+        UploadReceiver.Received received;
+        try {
+            received = UploadReceiver.receive(in, null, maxFileBytes, null);
+        } catch (UploadRejectedException e) {
+            return tooLarge();
+        }
+        String type = received.type() == null ? "unknown type" : received.type().getContentType();
+        String info = "File received: " + name + " (" + received.size() + " bytes, " + type + ")";
         return ResponseEntity.ok(info);
     }
-}
 
+    private ResponseEntity<String> tooLarge() {
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                .body("File is larger than " + maxFileBytes + " bytes");
+    }
+}
@@ -0,0 +1,72 @@
+package com.deepantechjournal.practiceweb.controllers;
+
+import com.deepantechjournal.practiceweb.services.ImageStorageService;
+import com.deepantechjournal.practiceweb.web.FileSender;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+// Serves stored product images and thumbnails (GET and HEAD /images/<file>). A file name never gets
+// new content (content hashes, or random names for older uploads), so responses are cacheable for a
+// year without revalidation; conditional and Range requests are still answered, and the body goes
+// out through sendfile via FileSender. The cache is private: /images requires authentication, so
+// shared caches must not hand these responses to other clients.
+@RestController
+@RequestMapping("/images")
+@CrossOrigin(origins = "*")
+public class ImageController {
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable();
+    private static final Pattern CONTENT_HASH = Pattern.compile("[0-9a-f]{64}(_thumb)?");
+
+    private final ImageStorageService imageStorageService;
+
+    public ImageController(ImageStorageService imageStorageService) {
+        this.imageStorageService = imageStorageService;
+    }
+
+    @GetMapping("/{fileName:.+}")
+    public void serve(@PathVariable String fileName,
+                      HttpServletRequest request,
+                      HttpServletResponse response) throws IOException {
+        Optional<Path> found = imageStorageService.findFile(fileName);
+        if (found.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        Path file = found.get();
+
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        String etag = etag(fileName, file, lastModified);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE.getHeaderValue());
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        String contentType = MediaTypeFactory.getMediaType(fileName)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM)
+                .toString();
+        FileSender.send(request, response, file, contentType, etag);
+    }
+
+    // content-addressed files carry their hash in the name, which is the ideal validator
+    private static String etag(String fileName, Path file, long lastModified) throws IOException {
+        String baseName = fileName.substring(0, fileName.lastIndexOf('.'));
+        if (CONTENT_HASH.matcher(baseName).matches()) {
+            return "\"" + baseName + "\"";
+        }
+        return "\"" + Long.toHexString(Files.size(file)) + "-" + Long.toHexString(lastModified) + "\"";
+    }
+}
@@ -0,0 +1,83 @@
+package com.deepantechjournal.practiceweb.controllers;
+
+import com.deepantechjournal.practiceweb.services.ImageRenditionService;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.*;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/api/images")
+@CrossOrigin(origins = "*")
+public class ImageRenditionController {
+
+    // an original's file name is the hash of its content, so a rendition of it never goes stale;
+    // private because /api/images requires authentication
+    private static final CacheControl RENDITION_CACHE = CacheControl.maxAge(Duration.ofDays(30)).cachePrivate();
+
+    private final ImageRenditionService renditionService;
+
+    public ImageRenditionController(ImageRenditionService renditionService) {
+        this.renditionService = renditionService;
+    }
+
+    // e.g. /api/images/<file>/rendition?width=320&format=webp. Cache misses are generated on the
+    // rendition pool, so the request thread is released while the image is resized.
+    @GetMapping("/{fileName}/rendition")
+    public CompletableFuture<ResponseEntity<Resource>> rendition(@PathVariable String fileName,
+                                                                 @RequestParam(value = "width", required = false) Integer width,
+                                                                 @RequestParam(value = "height", required = false) Integer height,
+                                                                 @RequestParam(value = "format", defaultValue = "auto") String format,
+                                                                 @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        Path original = renditionService.findOriginal(fileName)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Image not found"));
+
+        String outputFormat;
+        CompletableFuture<ImageRenditionService.Rendition> rendition;
+        try {
+            outputFormat = renditionService.resolveFormat(format, original, accept);
+            rendition = renditionService.render(original, width, height, outputFormat);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        boolean negotiated = "auto".equalsIgnoreCase(format);
+        // the stream is already open, so the file cannot be evicted before it is sent; the message
+        // converter closes it once the body is written
+        return rendition.handle((opened, error) -> {
+            if (error != null) throw failure(error instanceof CompletionException ? error.getCause() : error);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("image/" + outputFormat))
+                    .contentLength(opened.size())
+                    .cacheControl(RENDITION_CACHE);
+            if (negotiated) response.varyBy(HttpHeaders.ACCEPT);
+            return response.body(new InputStreamResource(opened.stream()));
+        });
+    }
+
+    @GetMapping("/renditions/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Map<String, Object> stats() {
+        return renditionService.stats();
+    }
+
+    private static ResponseStatusException failure(Throwable error) {
+        if (error instanceof RejectedExecutionException) {
+            return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many renditions being generated, try again shortly");
+        }
+        if (error instanceof IllegalArgumentException) {
+            return new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, error.getMessage());
+        }
+        System.out.println("Rendition failed: " + error.getMessage());
+        return new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Rendition failed");
+    }
+}
@@ -1,93 +1,68 @@
 package com.deepantechjournal.practiceweb.controllers;
 
-import com.deepantechjournal.practiceweb.models.Category;
-import com.deepantechjournal.practiceweb.models.Product;
-import com.deepantechjournal.practiceweb.repositories.CategoryRepository;
-import com.deepantechjournal.practiceweb.repositories.ProductRepository;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import com.deepantechjournal.practiceweb.dto.BulkImportResult;
+import com.deepantechjournal.practiceweb.services.BulkImportJob;
+import com.deepantechjournal.practiceweb.services.BulkImportJobService;
+import com.deepantechjournal.practiceweb.services.ChunkedUpload;
+import com.deepantechjournal.practiceweb.services.ChunkedUploadService;
+import com.deepantechjournal.practiceweb.services.ErrorReportStore;
+import com.deepantechjournal.practiceweb.services.ImportFormat;
+import com.deepantechjournal.practiceweb.services.ImportMode;
+import com.deepantechjournal.practiceweb.services.ImportProgress;
+import com.deepantechjournal.practiceweb.services.ProductBulkImportService;
+import com.deepantechjournal.practiceweb.services.ProductExportService;
+import com.deepantechjournal.practiceweb.web.FileSender;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.*;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.*;
-import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.GZIPInputStream;
 
 @RestController
 @RequestMapping("/api/products/bulk")
 @CrossOrigin(origins = "*")
 public class ProductBulkController {
 
-    private final ProductRepository productRepository;
-    private final CategoryRepository categoryRepository;
-
-    public ProductBulkController(ProductRepository productRepository,
-                                 CategoryRepository categoryRepository) {
-        this.productRepository = productRepository;
-        this.categoryRepository = categoryRepository;
+    private final ProductBulkImportService importService;
+    private final BulkImportJobService jobService;
+    private final ErrorReportStore reportStore;
+    private final ProductExportService exportService;
+    private final ChunkedUploadService uploadService;
+
+    public ProductBulkController(ProductBulkImportService importService,
+                                 BulkImportJobService jobService,
+                                 ErrorReportStore reportStore,
+                                 ProductExportService exportService,
+                                 ChunkedUploadService uploadService) {
+        this.importService = importService;
+        this.jobService = jobService;
+        this.reportStore = reportStore;
+        this.exportService = exportService;
+        this.uploadService = uploadService;
     }
 
     // -------- CSV Upload (simple) ----------
     @PostMapping("/upload")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Map<String, Object>> uploadCSV(@RequestParam("file") MultipartFile file) {
-
-        List<String> errors = new ArrayList<>();
-        List<String> skipped = new ArrayList<>();
-        int successCount = 0;
-
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream()))) {
-            String line;
-            int row = 0;
-
-            while ((line = reader.readLine()) != null) {
-                row++;
-                if (row == 1) continue;
-
-                try {
-                    String[] parts = line.split(",");
-                    String name = parts[0].trim();
-                    BigDecimal price = new BigDecimal(parts[1].trim());
-                    String description = parts[2].trim();
-                    Integer stock = Integer.parseInt(parts[3].trim());
-
-                    Optional<Product> existing = productRepository.findByName(name);
-                    if (existing.isPresent()) {
-                        skipped.add("Row " + row + ": " + name + " | Duplicate (SKIPPED)");
-                        continue;
-                    }
-
-                    Product product = Product.builder()
-                            .name(name)
-                            .price(price)
-                            .description(description)
-                            .stock(stock)
-                            .build();
-
-                    productRepository.save(product);
-                    successCount++;
-
-                } catch (Exception e) {
-                    errors.add("Row " + row + ": " + line + " | Error: " + e.getMessage());
-                }
-            }
-
-            String reportId = null;
-            if (!errors.isEmpty() || !skipped.isEmpty()) {
-                reportId = UUID.randomUUID().toString();
-                generateCsvReport(reportId, errors, skipped);
-            }
-
-            Map<String, Object> response = new LinkedHashMap<>();
-            response.put("successCount", successCount);
-            response.put("errorCount", errors.size());
-            response.put("skippedCount", skipped.size());
-            response.put("errorReportId", reportId);
-
-            return ResponseEntity.ok(response);
-
+    public ResponseEntity<Map<String, Object>> uploadCSV(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "mode", defaultValue = "INSERT") ImportMode mode,
+            @RequestParam(value = "async", defaultValue = "false") boolean async) {
+        if (async) {
+            return submitJob(ImportFormat.CSV, mode, file);
+        }
+        try (InputStream is = file.getInputStream()) {
+            return ResponseEntity.ok(toResponse(importService.importCsv(is, mode)));
         } catch (IOException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Map.of("error", "Invalid file"));
@@ -97,145 +72,300 @@ public class ProductBulkController {
     // -------- Excel Upload (Enterprise-style) ----------
     @PostMapping("/upload-xlsx")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Map<String, Object>> uploadExcel(@RequestParam("file") MultipartFile file) {
-
-        List<String> errors = new ArrayList<>();
-        List<String> skipped = new ArrayList<>();
-        int successCount = 0;
-
-        try (InputStream is = file.getInputStream();
-             Workbook workbook = new XSSFWorkbook(is)) {
-
-            Sheet sheet = workbook.getSheetAt(0);
-            int rowNum = 0;
-
-            for (Row row : sheet) {
-                rowNum++;
-                if (rowNum == 1) continue; // header
-
-                try {
-                    String name = getCellString(row.getCell(0));
-                    String sku = getCellString(row.getCell(1));
-                    String variant = getCellString(row.getCell(2)); // color/size
-                    String categoryName = getCellString(row.getCell(3));
-                    BigDecimal price = new BigDecimal(getCellString(row.getCell(4)));
-                    Integer stock = Integer.parseInt(getCellString(row.getCell(5)));
-
-                    if (name.isBlank()) {
-                        skipped.add("Row " + rowNum + ": missing product name (SKIPPED)");
-                        continue;
-                    }
-
-                    Optional<Product> existing = productRepository.findByName(name);
-                    if (existing.isPresent()) {
-                        skipped.add("Row " + rowNum + ": " + name + " | Duplicate (SKIPPED)");
-                        continue;
-                    }
-
-                    Category category = categoryRepository
-                            .findByNameIgnoreCase(categoryName)
-                            .orElseGet(() -> categoryRepository.save(
-                                    Category.builder().name(categoryName).build()
-                            ));
-
-                    Product product = Product.builder()
-                            .name(name + (variant.isBlank() ? "" : " - " + variant))
-                            .description("SKU: " + sku)
-                            .price(price)
-                            .stock(stock)
-                            .category(category)
-                            .build();
-
-                    productRepository.save(product);
-                    successCount++;
-
-                } catch (Exception e) {
-                    errors.add("Row " + rowNum + ": Error: " + e.getMessage());
-                }
-            }
+    public ResponseEntity<Map<String, Object>> uploadExcel(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "mode", defaultValue = "INSERT") ImportMode mode,
+            @RequestParam(value = "async", defaultValue = "false") boolean async) {
+        if (async) {
+            return submitJob(ImportFormat.XLSX, mode, file);
+        }
+        Path tempFile = null;
+        try {
+            // the streaming reader needs random access to the zip, so stage the upload on disk first
+            tempFile = Files.createTempFile("bulk-import-", ".xlsx");
+            file.transferTo(tempFile);
+            return ResponseEntity.ok(toResponse(importService.importExcel(tempFile, mode)));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Invalid Excel file"));
+        } finally {
+            deleteQuietly(tempFile);
+        }
+    }
 
-            String reportId = null;
-            if (!errors.isEmpty() || !skipped.isEmpty()) {
-                reportId = UUID.randomUUID().toString();
-                generateExcelReport(reportId, errors, skipped);
-            }
+    // -------- Resumable chunked upload ----------
+    // POST /uploads -> PUT /uploads/{id}?offset=N (raw bytes) ... -> POST /uploads/{id}/complete
+    @PostMapping("/uploads")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> startUpload(
+            @RequestParam("format") String format,
+            @RequestParam(value = "fileName", required = false) String fileName,
+            @RequestParam(value = "totalSize", defaultValue = "-1") long totalSize) {
+        ImportFormat importFormat;
+        try {
+            importFormat = ImportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unsupported format, use csv or xlsx"));
+        }
+        try {
+            ChunkedUpload upload = uploadService.start(importFormat, fileName, totalSize);
+            return ResponseEntity.created(java.net.URI.create("/api/products/bulk/uploads/" + upload.getId()))
+                    .body(toUploadResponse(upload));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Could not create upload"));
+        }
+    }
+
+    @GetMapping("/uploads/{uploadId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getUpload(@PathVariable String uploadId) {
+        return uploadService.find(uploadId)
+                .map(upload -> ResponseEntity.ok(toUploadResponse(upload)))
+                .orElse(ResponseEntity.notFound().build());
+    }
 
-            Map<String, Object> response = new LinkedHashMap<>();
-            response.put("successCount", successCount);
-            response.put("errorCount", errors.size());
-            response.put("skippedCount", skipped.size());
-            response.put("errorReportId", reportId);
+    @PutMapping("/uploads/{uploadId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> uploadChunk(@PathVariable String uploadId,
+                                                           @RequestParam("offset") long offset,
+                                                           HttpServletRequest request) {
+        Optional<ChunkedUpload> found = uploadService.find(uploadId);
+        if (found.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        ChunkedUpload upload = found.get();
+        long length = request.getContentLengthLong();
+        if (length < 0) {
+            return ResponseEntity.status(HttpStatus.LENGTH_REQUIRED)
+                    .body(Map.of("error", "Content-Length is required"));
+        }
+        try {
+            uploadService.append(upload, offset, request.getInputStream(), length);
+            return ResponseEntity.ok(toUploadResponse(upload));
+        } catch (ChunkedUploadService.OffsetMismatchException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(toUploadResponse(upload));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            // connection dropped mid-chunk: what arrived is kept, the client resumes from the reported offset
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(toUploadResponse(upload));
+        }
+    }
 
-            return ResponseEntity.ok(response);
+    @PostMapping("/uploads/{uploadId}/complete")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> completeUpload(
+            @PathVariable String uploadId,
+            @RequestParam(value = "mode", defaultValue = "INSERT") ImportMode mode,
+            @RequestParam(value = "async", defaultValue = "false") boolean async) {
+        Optional<ChunkedUpload> found = uploadService.find(uploadId);
+        if (found.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        ChunkedUpload upload = found.get();
+        Path stagedFile;
+        try {
+            stagedFile = uploadService.complete(upload);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Could not finalize upload"));
+        }
 
+        if (async) {
+            return submitStagedJob(upload.getFormat(), mode, stagedFile, upload.getFileName());
+        }
+        try {
+            if (upload.getFormat() == ImportFormat.XLSX) {
+                return ResponseEntity.ok(toResponse(importService.importExcel(stagedFile, mode)));
+            }
+            try (InputStream is = Files.newInputStream(stagedFile)) {
+                return ResponseEntity.ok(toResponse(importService.importCsv(is, mode)));
+            }
         } catch (IOException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(Map.of("error", "Invalid Excel file"));
+                    .body(Map.of("error", "Invalid file"));
+        } finally {
+            deleteQuietly(stagedFile);
+        }
+    }
+
+    @DeleteMapping("/uploads/{uploadId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> abortUpload(@PathVariable String uploadId) {
+        return uploadService.abort(uploadId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    // -------- Export ----------
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(value = "format", defaultValue = "csv") String format) {
+        if ("csv".equalsIgnoreCase(format)) {
+            StreamingResponseBody body = exportService::writeCsv;
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("text/csv"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=products.csv")
+                    .body(body);
+        }
+        if ("xlsx".equalsIgnoreCase(format)) {
+            StreamingResponseBody body = exportService::writeXlsx;
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(
+                            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=products.xlsx")
+                    .body(body);
         }
+        // the return type has to name StreamingResponseBody for Spring to stream it, so no error map here
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported format, use csv or xlsx");
+    }
+
+    // -------- Background import jobs ----------
+    @GetMapping("/jobs/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getJob(@PathVariable String jobId) {
+        return jobService.find(jobId)
+                .map(job -> ResponseEntity.ok(toJobResponse(job)))
+                .orElse(ResponseEntity.notFound().build());
     }
 
-    private String getCellString(Cell cell) {
-        if (cell == null) return "";
-        if (cell.getCellType() == CellType.STRING) return cell.getStringCellValue().trim();
-        if (cell.getCellType() == CellType.NUMERIC) return String.valueOf((long) cell.getNumericCellValue());
-        return cell.toString().trim();
+    @DeleteMapping("/jobs/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> cancelJob(@PathVariable String jobId) {
+        return jobService.cancel(jobId)
+                .map(job -> ResponseEntity.accepted().body(toJobResponse(job)))
+                .orElse(ResponseEntity.notFound().build());
     }
 
-    private void generateCsvReport(String id, List<String> errors, List<String> skipped) {
+    private ResponseEntity<Map<String, Object>> submitJob(ImportFormat format, ImportMode mode, MultipartFile file) {
+        Path stagedFile = null;
         try {
-            File dir = new File("error-reports");
-            if (!dir.exists()) dir.mkdirs();
-
-            File file = new File(dir, id + ".csv");
-            try (PrintWriter writer = new PrintWriter(file)) {
-                writer.println("Type,Message");
-                for (String e : errors) {
-                    writer.println("ERROR," + e.replace(",", ";"));
-                }
-                for (String s : skipped) {
-                    writer.println("SKIPPED," + s.replace(",", ";"));
-                }
-            }
-        } catch (Exception e) {
-            System.out.println("Failed to write CSV report: " + e.getMessage());
+            // the multipart temp file is gone once this request ends, so the job gets its own copy
+            stagedFile = Files.createTempFile("bulk-import-", format.getExtension());
+            file.transferTo(stagedFile);
+        } catch (IOException e) {
+            deleteQuietly(stagedFile);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Invalid file"));
         }
+        return submitStagedJob(format, mode, stagedFile, file.getOriginalFilename());
     }
 
-    private void generateExcelReport(String id, List<String> errors, List<String> skipped) {
+    // the job service owns stagedFile from here on, including deleting it when the queue is full
+    private ResponseEntity<Map<String, Object>> submitStagedJob(ImportFormat format, ImportMode mode,
+                                                                Path stagedFile, String fileName) {
         try {
-            File dir = new File("error-reports");
-            if (!dir.exists()) dir.mkdirs();
-
-            File file = new File(dir, id + "-excel.csv");
-            try (PrintWriter writer = new PrintWriter(file)) {
-                writer.println("Type,Message");
-                for (String e : errors) {
-                    writer.println("ERROR," + e.replace(",", ";"));
-                }
-                for (String s : skipped) {
-                    writer.println("SKIPPED," + s.replace(",", ";"));
-                }
-            }
-        } catch (Exception e) {
-            System.out.println("Failed to write Excel error report: " + e.getMessage());
+            BulkImportJob job = jobService.submit(format, mode, stagedFile, fileName);
+            return ResponseEntity.accepted()
+                    .location(java.net.URI.create("/api/products/bulk/jobs/" + job.getId()))
+                    .body(toJobResponse(job));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", "Import queue is full, try again later"));
+        }
+    }
+
+    private Map<String, Object> toUploadResponse(ChunkedUpload upload) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("uploadId", upload.getId());
+        response.put("format", upload.getFormat());
+        response.put("fileName", upload.getFileName());
+        response.put("offset", upload.getReceived());
+        response.put("totalSize", upload.getTotalSize() < 0 ? null : upload.getTotalSize());
+        response.put("complete", upload.isComplete());
+        response.put("updatedAt", upload.getUpdatedAt());
+        return response;
+    }
+
+    private Map<String, Object> toJobResponse(BulkImportJob job) {
+        ImportProgress progress = job.getProgress();
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("jobId", job.getId());
+        response.put("format", job.getFormat());
+        response.put("mode", job.getMode());
+        response.put("fileName", job.getFileName());
+        response.put("status", job.getStatus());
+        response.put("rowsProcessed", progress.getRowsProcessed());
+        response.put("successCount", progress.getSuccessCount());
+        response.put("updatedCount", progress.getUpdatedCount());
+        response.put("unchangedCount", progress.getUnchangedCount());
+        response.put("skippedCount", progress.getSkippedCount());
+        response.put("errorCount", progress.getErrorCount());
+        response.put("rowsPerSecond", job.getStartedAt() == null ? 0.0 : progress.getRowsPerSecond());
+        response.put("createdAt", job.getCreatedAt());
+        response.put("startedAt", job.getStartedAt());
+        response.put("finishedAt", job.getFinishedAt());
+        response.put("error", job.getError());
+
+        BulkImportResult result = job.getResult();
+        String reportId = result == null ? null : result.getErrorReportId();
+        response.put("errorReportId", reportId);
+        response.put("errorReportUrl", reportId == null ? null : "/api/products/bulk/download/" + reportId);
+        return response;
+    }
+
+    private Map<String, Object> toResponse(BulkImportResult result) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("successCount", result.getSuccessCount());
+        response.put("errorCount", result.getErrorCount());
+        response.put("updatedCount", result.getUpdatedCount());
+        response.put("unchangedCount", result.getUnchangedCount());
+        response.put("skippedCount", result.getSkippedCount());
+        response.put("errorReportId", result.getErrorReportId());
+        response.put("rowsProcessed", result.getRowsProcessed());
+        response.put("durationMs", result.getDurationMs());
+        response.put("rowsPerSecond", result.getRowsPerSecond());
+        return response;
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) return;
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.out.println("Failed to delete temp file " + path + ": " + e.getMessage());
         }
     }
 
     @GetMapping("/download/{reportId}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<org.springframework.core.io.Resource> downloadErrorReport(@PathVariable String reportId) throws IOException {
-        File file = new File("error-reports/" + reportId + ".csv");
-        if (!file.exists()) {
-            file = new File("error-reports/" + reportId + "-excel.csv");
-            if (!file.exists()) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
-            }
+    public void downloadErrorReport(@PathVariable String reportId,
+                                    HttpServletRequest request,
+                                    HttpServletResponse response) throws IOException {
+        Optional<Path> report = reportStore.find(reportId);
+        if (report.isEmpty()) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        Path file = report.get();
+        String fileName = file.getFileName().toString();
+        if (!fileName.endsWith(".gz")) {
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName);
+            FileSender.send(request, response, file, "text/csv");
+            return;
+        }
+
+        // gzip-stored reports go out as-is to clients that accept gzip and are inflated on the fly otherwise
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=" + fileName.substring(0, fileName.length() - ".gz".length()));
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            FileSender.send(request, response, file, "text/csv");
+            return;
+        }
+        response.setContentType("text/csv");
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            in.transferTo(response.getOutputStream());
         }
-        org.springframework.core.io.InputStreamResource resource = new org.springframework.core.io.InputStreamResource(new FileInputStream(file));
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_TYPE, "text/csv")
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + file.getName())
-                .body(resource);
     }
 }
-
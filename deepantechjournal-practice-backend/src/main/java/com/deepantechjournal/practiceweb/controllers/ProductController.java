@@ -1,40 +1,252 @@
 package com.deepantechjournal.practiceweb.controllers;
 
+import com.deepantechjournal.practiceweb.dto.ProductDto;
+import com.deepantechjournal.practiceweb.dto.ProductImageDto;
 import com.deepantechjournal.practiceweb.models.Product;
+import com.deepantechjournal.practiceweb.repositories.ProductImageRepository;
 import com.deepantechjournal.practiceweb.repositories.ProductRepository;
+import com.deepantechjournal.practiceweb.services.CatalogReadModel;
+import com.deepantechjournal.practiceweb.services.CatalogVersion;
+import com.deepantechjournal.practiceweb.services.ProductExportService;
+import com.deepantechjournal.practiceweb.services.ProductFacetService;
+import com.deepantechjournal.practiceweb.services.ProductFilter;
+import com.deepantechjournal.practiceweb.services.ProductPageService;
+import com.deepantechjournal.practiceweb.services.ProductReadCache;
+import com.deepantechjournal.practiceweb.services.ProductSearchService;
+import com.deepantechjournal.practiceweb.services.ProductSort;
+import com.deepantechjournal.practiceweb.services.ProductsChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import java.util.List;
-import java.util.UUID;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/products")
 @CrossOrigin(origins = "*")
 public class ProductController {
 
+    // cacheable, but clients must revalidate (cheap thanks to the catalog ETag)
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final ProductRepository productRepository;
-    public ProductController(ProductRepository productRepository) {
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductPageService pageService;
+    private final ProductReadCache readCache;
+    private final ProductSearchService searchService;
+    private final CatalogVersion catalogVersion;
+    private final ProductExportService exportService;
+    private final ProductFacetService facetService;
+    private final ProductImageRepository imageRepository;
+    private final CatalogReadModel readModel;
+    private final int maxBatchIds;
+
+    public ProductController(ProductRepository productRepository,
+                             ApplicationEventPublisher eventPublisher,
+                             ProductPageService pageService,
+                             ProductReadCache readCache,
+                             ProductSearchService searchService,
+                             CatalogVersion catalogVersion,
+                             ProductExportService exportService,
+                             ProductFacetService facetService,
+                             ProductImageRepository imageRepository,
+                             CatalogReadModel readModel,
+                             @Value("${app.products.batch.max-ids:100}") int maxBatchIds) {
         this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+        this.pageService = pageService;
+        this.readCache = readCache;
+        this.searchService = searchService;
+        this.catalogVersion = catalogVersion;
+        this.exportService = exportService;
+        this.facetService = facetService;
+        this.imageRepository = imageRepository;
+        this.readModel = readModel;
+        this.maxBatchIds = maxBatchIds;
     }
 
+    // Returns one keyset page; the body stays a plain array and the next page is announced through
+    // a Link header (rel="next") and X-Next-Cursor. No next cursor means this was the last page.
     @GetMapping
-    public List<Product> getAll() {
-        return productRepository.findAll();
+    @CrossOrigin(origins = "*", exposedHeaders = {HttpHeaders.LINK, "X-Next-Cursor"})
+    public ResponseEntity<?> getAll(@RequestParam(value = "size", required = false) Integer size,
+                                    @RequestParam(value = "cursor", required = false) String cursor,
+                                    @RequestParam(value = "sort", defaultValue = "createdAt") String sort,
+                                    @RequestParam(value = "direction", defaultValue = "asc") String direction,
+                                    WebRequest request) {
+        if (catalogVersion.checkNotModified(request, null)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+        }
+        Optional<ProductSort> sortKey = ProductSort.fromProperty(sort);
+        if (sortKey.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unsupported sort, use createdAt, name or price"));
+        }
+
+        ProductPageService.Page page;
+        try {
+            page = page(ProductFilter.NONE, sortKey.get(), "desc".equalsIgnoreCase(direction), cursor, size);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT);
+        if (page.nextCursor() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.nextCursor())
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"")
+                    .header("X-Next-Cursor", page.nextCursor());
+        }
+        return response.body(page.items());
+    }
+
+    // Whole catalog for integrations (Accept: application/x-ndjson), one product per line, streamed
+    // from a database cursor so neither memory nor time-to-first-byte grows with the catalog.
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll(WebRequest request) {
+        if (catalogVersion.checkNotModified(request, "ndjson")) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+        }
+        StreamingResponseBody body = exportService::writeNdjson;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .cacheControl(REVALIDATE)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(body);
+    }
+
+    // Storefront listing: filtered keyset page plus sidebar facets. Facets count the filtered set
+    // and are only computed for the first page (no cursor).
+    @GetMapping("/filter")
+    public ResponseEntity<Map<String, Object>> filter(
+            @RequestParam(value = "categoryId", required = false) List<UUID> categoryIds,
+            @RequestParam(value = "minPrice", required = false) BigDecimal minPrice,
+            @RequestParam(value = "maxPrice", required = false) BigDecimal maxPrice,
+            @RequestParam(value = "inStock", required = false) Boolean inStock,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "sort", defaultValue = "createdAt") String sort,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction,
+            WebRequest request) {
+        if (catalogVersion.checkNotModified(request, null)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+        }
+        Optional<ProductSort> sortKey = ProductSort.fromProperty(sort);
+        if (sortKey.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unsupported sort, use createdAt, name or price"));
+        }
+
+        ProductFilter productFilter = new ProductFilter(categoryIds, minPrice, maxPrice, inStock);
+        ProductPageService.Page page;
+        try {
+            page = page(productFilter, sortKey.get(), "desc".equalsIgnoreCase(direction), cursor, size);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("items", page.items());
+        response.put("nextCursor", page.nextCursor());
+        if (cursor == null || cursor.isBlank()) {
+            response.put("facets", facetService.facets(productFilter));
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(response);
+    }
+
+    // Matches name, category and description; every word must match, exactly or as a prefix.
+    @GetMapping("/search")
+    public List<ProductDto> search(@RequestParam("q") String q,
+                                   @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return searchService.search(q, Math.max(1, Math.min(limit, 100)));
+    }
+
+    // Cart/comparison pages: products with category and images for up to maxBatchIds ids in two IN
+    // queries, in the order asked for. Ids that do not exist are listed under "missing".
+    @GetMapping("/batch")
+    public ResponseEntity<Map<String, Object>> getBatch(@RequestParam("ids") List<UUID> ids, WebRequest request) {
+        Set<UUID> requested = new LinkedHashSet<>(ids);
+        if (requested.size() > maxBatchIds) {
+            return ResponseEntity.badRequest().body(Map.of("error", "At most " + maxBatchIds + " ids per request"));
+        }
+        if (catalogVersion.checkNotModified(request, null)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+        }
+
+        Map<UUID, ProductDto> products = new HashMap<>();
+        Map<UUID, List<ProductImageDto>> images = new HashMap<>();
+        if (!requested.isEmpty()) {
+            productRepository.findDtosByIds(requested).forEach(p -> products.put(p.getId(), p));
+        }
+        if (!products.isEmpty()) {
+            images = imageRepository.findDtosByProductIds(products.keySet()).stream()
+                    .collect(Collectors.groupingBy(ProductImageDto::getProductId));
+        }
+
+        List<Map<String, Object>> items = new ArrayList<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : requested) {
+            ProductDto product = products.get(id);
+            if (product == null) {
+                missing.add(id);
+                continue;
+            }
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("product", product);
+            item.put("images", images.getOrDefault(id, List.of()));
+            items.add(item);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("items", items);
+        response.put("missing", missing);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(response);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getById(@PathVariable UUID id) {
-        return productRepository.findById(id)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<ProductDto> getById(@PathVariable UUID id, WebRequest request) {
+        if (catalogVersion.checkNotModified(request, null)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+        }
+        Optional<ProductDto> found = readModel.isEnabled() ? readModel.findById(id) : readCache.findById(id);
+        return found
+                .map(product -> ResponseEntity.ok().cacheControl(REVALIDATE).body(product))
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Map<String, Object> cacheStats() {
+        return readCache.stats();
+    }
+
+    @GetMapping("/read-model/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Map<String, Object> readModelStats() {
+        return readModel.stats();
+    }
+
     @PostMapping("/add")
     @PreAuthorize("hasRole('ADMIN')")
     public Product add(@RequestBody Product product) {
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(ProductsChangedEvent.of(List.of(saved)));
+        return saved;
     }
-}
 
+    private ProductPageService.Page page(ProductFilter filter, ProductSort sort, boolean descending, String cursor, Integer size) {
+        return readModel.isEnabled()
+                ? readModel.page(filter, sort, descending, cursor, size)
+                : pageService.page(filter, sort, descending, cursor, size);
+    }
+}
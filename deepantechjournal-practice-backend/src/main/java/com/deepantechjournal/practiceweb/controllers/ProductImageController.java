@@ -1,17 +1,25 @@
 package com.deepantechjournal.practiceweb.controllers;
 
+import com.deepantechjournal.practiceweb.dto.ProductImageDto;
 import com.deepantechjournal.practiceweb.models.Product;
 import com.deepantechjournal.practiceweb.models.ProductImage;
 import com.deepantechjournal.practiceweb.repositories.ProductImageRepository;
 import com.deepantechjournal.practiceweb.repositories.ProductRepository;
-import net.coobird.thumbnailator.Thumbnails;
-import org.springframework.beans.factory.annotation.Value;
+import com.deepantechjournal.practiceweb.services.CatalogVersion;
+import com.deepantechjournal.practiceweb.services.ImageStorageService;
+import com.deepantechjournal.practiceweb.services.ProductsChangedEvent;
+import com.deepantechjournal.practiceweb.services.ThumbnailService;
+import com.deepantechjournal.practiceweb.services.UploadRejectedException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.http.*;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.nio.file.*;
+import java.io.InputStream;
 import java.util.*;
 
 @RestController
@@ -21,85 +29,120 @@ public class ProductImageController {
 
     private final ProductRepository productRepository;
     private final ProductImageRepository imageRepository;
-
-    @Value("${app.storage.product-images-dir}")
-    private String productImagesDir;
+    private final CatalogVersion catalogVersion;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ThumbnailService thumbnailService;
+    private final ImageStorageService imageStorageService;
 
     public ProductImageController(ProductRepository productRepository,
-            ProductImageRepository imageRepository) {
+            ProductImageRepository imageRepository,
+            CatalogVersion catalogVersion,
+            ApplicationEventPublisher eventPublisher,
+            ThumbnailService thumbnailService,
+            ImageStorageService imageStorageService) {
         this.productRepository = productRepository;
         this.imageRepository = imageRepository;
+        this.catalogVersion = catalogVersion;
+        this.eventPublisher = eventPublisher;
+        this.thumbnailService = thumbnailService;
+        this.imageStorageService = imageStorageService;
     }
 
-    @PostMapping("/{productId}/images")
+    @PostMapping(value = "/{productId}/images", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> uploadProductImage(
             @PathVariable UUID productId,
             @RequestParam("file") MultipartFile file) {
+        if (file.getSize() > imageStorageService.getMaxImageBytes()) {
+            return tooLarge();
+        }
+        return storeImage(productId, file::getInputStream);
+    }
 
+    // Raw body upload (Content-Type image/* or application/octet-stream): the body is streamed straight
+    // to disk without multipart spooling, and a declared length over the limit is refused before any
+    // of it is read.
+    @PostMapping(value = "/{productId}/images", consumes = {"image/*", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> uploadProductImageBody(@PathVariable UUID productId, HttpServletRequest request) {
+        if (request.getContentLengthLong() > imageStorageService.getMaxImageBytes()) {
+            return tooLarge();
+        }
+        return storeImage(productId, request::getInputStream);
+    }
+
+    @DeleteMapping("/{productId}/images/{imageId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> deleteProductImage(@PathVariable UUID productId, @PathVariable UUID imageId) {
+        if (!imageStorageService.delete(productId, imageId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Image not found"));
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/images/thumbnails/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Map<String, Object> thumbnailStats() {
+        return thumbnailService.stats();
+    }
+
+    private ResponseEntity<?> storeImage(UUID productId, InputStreamSource body) {
         Optional<Product> productOpt = productRepository.findById(productId);
         if (productOpt.isEmpty()) {
             return ResponseEntity.badRequest().body(Map.of("error", "Product not found"));
         }
         Product product = productOpt.get();
+        if (!thumbnailService.hasCapacity()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body(Map.of("error", "Too many images being processed, try again shortly"));
+        }
 
-        try {
-            Path dir = Paths.get(productImagesDir).toAbsolutePath().normalize();
-            Files.createDirectories(dir);
-
-            String originalFilename = Objects.requireNonNull(file.getOriginalFilename());
-            String ext = originalFilename.substring(originalFilename.lastIndexOf('.'));
-            String baseName = UUID.randomUUID().toString();
-
-            String imageFileName = baseName + ext;
-            String thumbFileName = baseName + "_thumb" + ext;
-
-            Path imagePath = dir.resolve(imageFileName);
-            Path thumbPath = dir.resolve(thumbFileName);
-
-            file.transferTo(imagePath.toFile());
-
-            Thumbnails.of(imagePath.toFile())
-                    .size(400, 400)
-                    .keepAspectRatio(true)
-                    .toFile(thumbPath.toFile());
-
-            String imageUrl = "/images/" + imageFileName;
-            String thumbUrl = "/images/" + thumbFileName;
-
-            ProductImage pi = ProductImage.builder()
-                    .product(product)
-                    .imageUrl(imageUrl)
-                    .thumbnailUrl(thumbUrl)
-                    .build();
-            imageRepository.save(pi);
-
-            return ResponseEntity.ok(Map.of(
-                    "message", "Image uploaded",
-                    "imageUrl", imageUrl,
-                    "thumbnailUrl", thumbUrl));
+        try (InputStream in = body.getInputStream()) {
+            // identical content is stored once; the thumbnail is made in the background unless the
+            // content already has one, and until then the original stands in for it
+            ImageStorageService.StoredImage stored = imageStorageService.store(product, in);
+            ProductImage pi = stored.image();
+            // the product's image list changed, so its cached views and ETags are stale
+            eventPublisher.publishEvent(ProductsChangedEvent.of(List.of(product)));
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("message", "Image uploaded");
+            response.put("imageId", pi.getId());
+            response.put("imageUrl", pi.getImageUrl());
+            response.put("thumbnailUrl", pi.getThumbnailUrl() == null ? pi.getImageUrl() : pi.getThumbnailUrl());
+            response.put("thumbnailStatus", pi.getThumbnailStatus());
+            response.put("deduplicated", stored.deduplicated());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        } catch (UploadRejectedException e) {
+            HttpStatus status = e.getReason() == UploadRejectedException.Reason.TOO_LARGE
+                    ? HttpStatus.PAYLOAD_TOO_LARGE
+                    : HttpStatus.UNSUPPORTED_MEDIA_TYPE;
+            return ResponseEntity.status(status).body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", "Upload failed", "details", e.getMessage()));
         }
     }
 
+    private ResponseEntity<?> tooLarge() {
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                .body(Map.of("error", "Image is larger than " + imageStorageService.getMaxImageBytes() + " bytes"));
+    }
+
     @GetMapping("/{productId}/images")
-    public ResponseEntity<List<Map<String, String>>> getProductImages(@PathVariable UUID productId) {
-        Optional<Product> productOpt = productRepository.findById(productId);
-        if (productOpt.isEmpty()) {
-            return ResponseEntity.badRequest().build();
+    public ResponseEntity<List<ProductImageDto>> getProductImages(@PathVariable UUID productId,
+                                                                  WebRequest request) {
+        if (catalogVersion.checkNotModified(request, null)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .build();
         }
-        Product product = productOpt.get();
-        var images = imageRepository.findByProduct(product);
-
-        List<Map<String, String>> result = new ArrayList<>();
-        for (ProductImage img : images) {
-            result.add(Map.of(
-                    "id", img.getId().toString(),
-                    "imageUrl", img.getImageUrl(),
-                    "thumbnailUrl", img.getThumbnailUrl() == null ? img.getImageUrl() : img.getThumbnailUrl()));
+        // one query in the common case; only an empty result needs telling "no images" from "no product"
+        List<ProductImageDto> images = imageRepository.findDtosByProductIds(List.of(productId));
+        if (images.isEmpty() && !productRepository.existsById(productId)) {
+            return ResponseEntity.badRequest().build();
         }
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).body(images);
     }
 }
 
@@ -0,0 +1,72 @@
+package com.deepantechjournal.practiceweb.controllers;
+
+import com.deepantechjournal.practiceweb.services.StockReservation;
+import com.deepantechjournal.practiceweb.services.StockReservationService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/products")
+@CrossOrigin(origins = "*")
+public class ProductStockController {
+
+    private final StockReservationService reservationService;
+
+    public ProductStockController(StockReservationService reservationService) {
+        this.reservationService = reservationService;
+    }
+
+    // 409 when there is not enough stock left, 503 when the product is too contended to get a turn
+    @PostMapping("/{productId}/stock/reserve")
+    public ResponseEntity<?> reserve(@PathVariable UUID productId,
+                                     @RequestParam(value = "quantity", defaultValue = "1") int quantity,
+                                     Authentication authentication) throws InterruptedException {
+        if (quantity <= 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Quantity must be positive"));
+        }
+
+        StockReservationService.Outcome outcome = reservationService.reserve(productId, quantity, authentication.getName());
+        return switch (outcome.status()) {
+            case RESERVED -> {
+                Map<String, Object> response = toResponse(outcome.reservation());
+                response.put("remainingStock", outcome.available());
+                yield ResponseEntity.ok(response);
+            }
+            case INSUFFICIENT_STOCK -> ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Insufficient stock", "available", outcome.available()));
+            case NOT_FOUND -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Product not found"));
+            case BUSY -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", "1")
+                    .body(Map.of("error", "Product is busy, try again"));
+        };
+    }
+
+    @PostMapping("/stock/reservations/{reservationId}/release")
+    public ResponseEntity<?> release(@PathVariable UUID reservationId, Authentication authentication) {
+        return reservationService.release(reservationId, authentication.getName())
+                .<ResponseEntity<?>>map(reservation -> ResponseEntity.ok(toResponse(reservation)))
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Reservation not found")));
+    }
+
+    @PostMapping("/stock/reservations/{reservationId}/confirm")
+    public ResponseEntity<?> confirm(@PathVariable UUID reservationId, Authentication authentication) {
+        return reservationService.confirm(reservationId, authentication.getName())
+                .<ResponseEntity<?>>map(reservation -> ResponseEntity.ok(toResponse(reservation)))
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Reservation not found")));
+    }
+
+    private Map<String, Object> toResponse(StockReservation reservation) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("reservationId", reservation.id());
+        response.put("productId", reservation.productId());
+        response.put("quantity", reservation.quantity());
+        response.put("expiresAt", reservation.expiresAt());
+        return response;
+    }
+}
@@ -0,0 +1,19 @@
+package com.deepantechjournal.practiceweb.dto;
+
+import lombok.*;
+
+@Getter
+@AllArgsConstructor
+public class BulkImportResult {
+    private int successCount;
+    private int errorCount;
+    private int skippedCount;
+    private int updatedCount;
+    private int unchangedCount;
+    private String errorReportId;
+    private long rowsProcessed;
+    private long durationMs;
+    private double rowsPerSecond;
+    // stopped by a cancel request before every row was read
+    private boolean cancelled;
+}
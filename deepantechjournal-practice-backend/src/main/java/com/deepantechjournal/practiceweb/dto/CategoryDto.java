@@ -0,0 +1,14 @@
+package com.deepantechjournal.practiceweb.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class CategoryDto {
+    private UUID id;
+    private String name;
+    private Instant createdAt;
+}
@@ -0,0 +1,29 @@
+package com.deepantechjournal.practiceweb.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+// Read-side view of a product with the same JSON shape as the entity, filled straight from a
+// JPQL constructor expression so no entity, proxy or lazy association is involved.
+@Getter
+@AllArgsConstructor
+public class ProductDto {
+    private UUID id;
+    private String name;
+    private String description;
+    private BigDecimal price;
+    private Integer stock;
+    private CategoryDto category;
+    private Instant createdAt;
+
+    // flat form for constructor expressions over "Product p left join p.category c"
+    public ProductDto(UUID id, String name, String description, BigDecimal price, Integer stock, Instant createdAt,
+                      UUID categoryId, String categoryName, Instant categoryCreatedAt) {
+        this(id, name, description, price, stock,
+                categoryId == null ? null : new CategoryDto(categoryId, categoryName, categoryCreatedAt),
+                createdAt);
+    }
+}
@@ -0,0 +1,28 @@
+package com.deepantechjournal.practiceweb.dto;
+
+import com.deepantechjournal.practiceweb.models.ThumbnailStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.*;
+
+import java.util.UUID;
+
+// Image of a product as the API returns it; the product is known by id only, so loading images
+// never pulls in the eager product/category associations.
+@Getter
+public class ProductImageDto {
+    private UUID id;
+    @JsonIgnore
+    private UUID productId;
+    private String imageUrl;
+    private String thumbnailUrl;
+    private ThumbnailStatus thumbnailStatus;
+
+    public ProductImageDto(UUID id, UUID productId, String imageUrl, String thumbnailUrl, ThumbnailStatus thumbnailStatus) {
+        this.id = id;
+        this.productId = productId;
+        this.imageUrl = imageUrl;
+        // images without a thumbnail (yet) are shown at full size
+        this.thumbnailUrl = thumbnailUrl == null ? imageUrl : thumbnailUrl;
+        this.thumbnailStatus = thumbnailStatus;
+    }
+}
@@ -0,0 +1,38 @@
+package com.deepantechjournal.practiceweb.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// One stored image file, named by the SHA-256 of its content, shared by every ProductImage with the
+// same contentHash. refCount counts those rows; unreferencedAt is when it last dropped to zero.
+@Entity
+@Table(name = "image_blobs", indexes = {
+        @Index(name = "idx_image_blobs_ref_count", columnList = "ref_count, unreferenced_at")
+})
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor @Builder
+public class ImageBlob {
+
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Column(nullable = false)
+    private String fileName;
+
+    @Column(nullable = false)
+    private String thumbnailFileName;
+
+    @Enumerated(EnumType.STRING)
+    private ThumbnailStatus thumbnailStatus;
+
+    private long size;
+
+    private int refCount;
+
+    private Instant unreferencedAt;
+
+    private Instant createdAt;
+}
@@ -7,7 +7,9 @@ import java.time.Instant;
 import java.util.UUID;
 
 @Entity
-@Table(name = "product_images")
+@Table(name = "product_images", indexes = {
+        @Index(name = "idx_product_images_content_hash", columnList = "content_hash")
+})
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor @Builder
 public class ProductImage {
@@ -23,8 +25,16 @@ public class ProductImage {
     @Column(nullable = false)
     private String imageUrl;
 
+    // SHA-256 of the file, shared with every other image of the same content (see ImageBlob)
+    @Column(length = 64)
+    private String contentHash;
+
+    // set once the thumbnail has been generated (status READY)
     private String thumbnailUrl;
 
+    @Enumerated(EnumType.STRING)
+    private ThumbnailStatus thumbnailStatus;
+
     private Instant createdAt = Instant.now();
 }
 
@@ -0,0 +1,7 @@
+package com.deepantechjournal.practiceweb.models;
+
+public enum ThumbnailStatus {
+    PENDING,
+    READY,
+    FAILED
+}
@@ -0,0 +1,11 @@
+package com.deepantechjournal.practiceweb.repositories;
+
+import com.deepantechjournal.practiceweb.models.ImageBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ImageBlobRepository extends JpaRepository<ImageBlob, String> {
+    List<ImageBlob> findByRefCountAndUnreferencedAtBefore(int refCount, Instant cutoff);
+}
@@ -1,13 +1,33 @@
 package com.deepantechjournal.practiceweb.repositories;
 
+import com.deepantechjournal.practiceweb.dto.ProductImageDto;
 import com.deepantechjournal.practiceweb.models.Product;
 import com.deepantechjournal.practiceweb.models.ProductImage;
+import com.deepantechjournal.practiceweb.models.ThumbnailStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 public interface ProductImageRepository extends JpaRepository<ProductImage, UUID> {
     List<ProductImage> findByProduct(Product product);
+
+    @Query("select new com.deepantechjournal.practiceweb.dto.ProductImageDto(i.id, i.product.id, i.imageUrl, i.thumbnailUrl, i.thumbnailStatus) "
+            + "from ProductImage i where i.product.id in :productIds order by i.createdAt, i.id")
+    List<ProductImageDto> findDtosByProductIds(@Param("productIds") Collection<UUID> productIds);
+
+    @Query("select distinct i.product.id from ProductImage i where i.contentHash = :contentHash")
+    List<UUID> findProductIdsByContentHash(@Param("contentHash") String contentHash);
+
+    @Modifying
+    @Query("update ProductImage i set i.thumbnailUrl = :thumbnailUrl, i.thumbnailStatus = :status "
+            + "where i.contentHash = :contentHash")
+    int updateThumbnailByContentHash(@Param("contentHash") String contentHash,
+                                     @Param("thumbnailUrl") String thumbnailUrl,
+                                     @Param("status") ThumbnailStatus status);
 }
 
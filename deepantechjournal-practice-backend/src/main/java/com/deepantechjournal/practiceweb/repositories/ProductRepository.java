@@ -1,12 +1,34 @@
 package com.deepantechjournal.practiceweb.repositories;
 
+import com.deepantechjournal.practiceweb.dto.ProductDto;
 import com.deepantechjournal.practiceweb.models.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface ProductRepository extends JpaRepository<Product, UUID> {
+
+    // Product + category read in one joined statement as ProductDto; callers append where/order by on p
+    String DTO_SELECT = "select new com.deepantechjournal.practiceweb.dto.ProductDto("
+            + "p.id, p.name, p.description, p.price, p.stock, p.createdAt, c.id, c.name, c.createdAt) "
+            + "from Product p left join p.category c";
+
     Optional<Product> findByName(String name);
-}
 
+    @Query(DTO_SELECT + " where p.id = :id")
+    Optional<ProductDto> findDtoById(@Param("id") UUID id);
+
+    @Query(DTO_SELECT + " where p.id in :ids")
+    List<ProductDto> findDtosByIds(@Param("ids") Collection<UUID> ids);
+
+    @Query(DTO_SELECT)
+    List<ProductDto> findAllDtos();
+
+    @Query("select p.name from Product p where p.name in :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
+}
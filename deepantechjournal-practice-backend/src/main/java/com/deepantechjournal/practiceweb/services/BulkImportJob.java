@@ -0,0 +1,66 @@
+package com.deepantechjournal.practiceweb.services;
+
+import com.deepantechjournal.practiceweb.dto.BulkImportResult;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+public class BulkImportJob {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED }
+
+    private final String id;
+    private final ImportFormat format;
+    private final ImportMode mode;
+    private final String fileName;
+    private final Instant createdAt = Instant.now();
+    private final ImportProgress progress = new ImportProgress();
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile BulkImportResult result;
+    private volatile String error;
+
+    public BulkImportJob(String id, ImportFormat format, ImportMode mode, String fileName) {
+        this.id = id;
+        this.format = format;
+        this.mode = mode;
+        this.fileName = fileName;
+    }
+
+    public boolean isFinished() {
+        return finishedAt != null;
+    }
+
+    // returns false when the job was cancelled while still queued
+    synchronized boolean start() {
+        if (status != Status.QUEUED) return false;
+        status = Status.RUNNING;
+        startedAt = Instant.now();
+        return true;
+    }
+
+    synchronized void complete(BulkImportResult result) {
+        this.result = result;
+        // a cancel that arrives after the last chunk was written changes nothing: every row is in
+        finish(result.isCancelled() ? Status.CANCELLED : Status.COMPLETED);
+    }
+
+    synchronized void fail(String error) {
+        this.error = error;
+        finish(Status.FAILED);
+    }
+
+    synchronized void cancel() {
+        progress.cancel();
+        if (status == Status.QUEUED) {
+            finish(Status.CANCELLED);
+        }
+    }
+
+    private void finish(Status finalStatus) {
+        status = finalStatus;
+        finishedAt = Instant.now();
+    }
+}
@@ -0,0 +1,106 @@
+package com.deepantechjournal.practiceweb.services;
+
+import com.deepantechjournal.practiceweb.dto.BulkImportResult;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+@Service
+public class BulkImportJobService {
+
+    private final ProductBulkImportService importService;
+    private final ThreadPoolExecutor executor;
+    private final Duration retention;
+    private final Map<String, BulkImportJob> jobs = new ConcurrentHashMap<>();
+
+    public BulkImportJobService(ProductBulkImportService importService,
+                                @Value("${app.bulk.jobs.pool-size:2}") int poolSize,
+                                @Value("${app.bulk.jobs.queue-capacity:20}") int queueCapacity,
+                                @Value("${app.bulk.jobs.retention-minutes:60}") long retentionMinutes) {
+        this.importService = importService;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+        // bounded on both threads and queue: a full queue rejects new jobs instead of piling up staged files
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("bulk-import-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Takes ownership of stagedFile: it is deleted once the job finishes or is rejected.
+    public BulkImportJob submit(ImportFormat format, ImportMode mode, Path stagedFile, String fileName) {
+        purgeExpired();
+
+        BulkImportJob job = new BulkImportJob(UUID.randomUUID().toString(), format, mode, fileName);
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, stagedFile));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            deleteQuietly(stagedFile);
+            throw e;
+        }
+        return job;
+    }
+
+    public Optional<BulkImportJob> find(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    public Optional<BulkImportJob> cancel(String id) {
+        BulkImportJob job = jobs.get(id);
+        if (job != null) job.cancel();
+        return Optional.ofNullable(job);
+    }
+
+    private void run(BulkImportJob job, Path stagedFile) {
+        try {
+            if (!job.start()) return;
+            job.complete(runImport(job, stagedFile));
+        } catch (Exception e) {
+            System.out.println("Bulk import job " + job.getId() + " failed: " + e.getMessage());
+            job.fail(e.getMessage());
+        } finally {
+            deleteQuietly(stagedFile);
+        }
+    }
+
+    private BulkImportResult runImport(BulkImportJob job, Path stagedFile) throws IOException {
+        if (job.getFormat() == ImportFormat.XLSX) {
+            return importService.importExcel(stagedFile, job.getMode(), job.getProgress());
+        }
+        try (InputStream in = Files.newInputStream(stagedFile)) {
+            return importService.importCsv(in, job.getMode(), job.getProgress());
+        }
+    }
+
+    private void purgeExpired() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.out.println("Failed to delete staged import file " + path + ": " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(BulkImportJob::cancel);
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,50 @@
+package com.deepantechjournal.practiceweb.services;
+
+import com.deepantechjournal.practiceweb.dto.BulkImportResult;
+
+public class BulkImportReport implements AutoCloseable {
+
+    private final ImportProgress progress;
+    private final ErrorReportWriter writer;
+
+    public BulkImportReport(ImportProgress progress, ErrorReportWriter writer) {
+        this.progress = progress;
+        this.writer = writer;
+        progress.start();
+    }
+
+    public ImportProgress getProgress() {
+        return progress;
+    }
+
+    public void record(BulkImportRow row) {
+        switch (row.getStatus()) {
+            case SAVED -> progress.recordSuccess();
+            case UPDATED -> progress.recordUpdated();
+            case UNCHANGED -> progress.recordUnchanged();
+            case ERROR -> {
+                writer.error(row.getMessage());
+                progress.recordError();
+            }
+            case SKIPPED, DUPLICATE -> {
+                writer.skipped(row.getMessage());
+                progress.recordSkipped();
+            }
+            default -> throw new IllegalStateException("Row " + row.getRowNumber() + " was never written");
+        }
+    }
+
+    // cancelled: the import stopped before reaching the end of the file
+    public BulkImportResult finish(boolean cancelled) {
+        String reportId = writer.finish();
+        return new BulkImportResult((int) progress.getSuccessCount(), (int) progress.getErrorCount(),
+                (int) progress.getSkippedCount(), (int) progress.getUpdatedCount(),
+                (int) progress.getUnchangedCount(), reportId,
+                progress.getRowsProcessed(), progress.getElapsedMs(), progress.getRowsPerSecond(), cancelled);
+    }
+
+    @Override
+    public void close() {
+        writer.close();
+    }
+}
@@ -0,0 +1,82 @@
+package com.deepantechjournal.practiceweb.services;
+
+import com.deepantechjournal.practiceweb.models.Product;
+import lombok.Getter;
+
+@Getter
+public class BulkImportRow {
+
+    public enum Status { PENDING, SAVED, UPDATED, UNCHANGED, DUPLICATE, ERROR, SKIPPED }
+
+    private final int rowNumber;
+    private final String lookupName;
+    private final Product product;
+    private final String categoryName;
+    private final String errorPrefix;
+    private Status status;
+    private String message;
+
+    private BulkImportRow(int rowNumber, String lookupName, Product product, String categoryName,
+                          String errorPrefix, Status status, String message) {
+        this.rowNumber = rowNumber;
+        this.lookupName = lookupName;
+        this.product = product;
+        this.categoryName = categoryName;
+        this.errorPrefix = errorPrefix;
+        this.status = status;
+        this.message = message;
+    }
+
+    public static BulkImportRow valid(int rowNumber, String lookupName, Product product, String errorPrefix) {
+        return valid(rowNumber, lookupName, product, null, errorPrefix);
+    }
+
+    // categoryName is resolved (or created) only once the row is known not to be a duplicate
+    public static BulkImportRow valid(int rowNumber, String lookupName, Product product,
+                                      String categoryName, String errorPrefix) {
+        return new BulkImportRow(rowNumber, lookupName, product, categoryName, errorPrefix, Status.PENDING, null);
+    }
+
+    public static BulkImportRow error(int rowNumber, String message) {
+        return new BulkImportRow(rowNumber, null, null, null, null, Status.ERROR, message);
+    }
+
+    public static BulkImportRow skipped(int rowNumber, String message) {
+        return new BulkImportRow(rowNumber, null, null, null, null, Status.SKIPPED, message);
+    }
+
+    // rows rejected while parsing never reach the database
+    public boolean isRejected() {
+        return product == null;
+    }
+
+    // the row's product now exists in the database with the row's values
+    public boolean isApplied() {
+        return status == Status.SAVED || status == Status.UPDATED || status == Status.UNCHANGED;
+    }
+
+    void markSaved() {
+        status = Status.SAVED;
+        message = null;
+    }
+
+    void markUpdated() {
+        status = Status.UPDATED;
+        message = null;
+    }
+
+    void markUnchanged() {
+        status = Status.UNCHANGED;
+        message = null;
+    }
+
+    void markDuplicate() {
+        status = Status.DUPLICATE;
+        message = "Row " + rowNumber + ": " + lookupName + " | Duplicate (SKIPPED)";
+    }
+
+    void fail(String error) {
+        status = Status.ERROR;
+        message = errorPrefix + error;
+    }
+}
@@ -0,0 +1,236 @@
+package com.deepantechjournal.practiceweb.services;
+
+import com.deepantechjournal.practiceweb.dto.ProductDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Optional in-memory read model (app.products.read-model.enabled) serving the product list, get and
+// filter endpoints from a CatalogSnapshot instead of JPA. Built from one table scan on first use and
+// kept current from ProductsChangedEvent by re-reading only the changed rows, like the search index.
+@Service
+public class CatalogReadModel {
+
+    private static final int REFRESH_BATCH = 1000;
+    private static final String ROW_SELECT = "SELECT p.id, p.name, p.description, p.price, p.stock, p.created_at, "
+            + "c.id, c.name, c.created_at FROM products p LEFT JOIN categories c ON c.id = p.category_id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int defaultSize;
+    private final int maxSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object buildLock = new Object();
+    private final Object updateLock = new Object();
+    private volatile CatalogSnapshot snapshot;
+    // guarded by updateLock
+    private Set<UUID> changedDuringBuild;
+    private long generation;
+    private volatile long lastBuildMs;
+
+    public CatalogReadModel(NamedParameterJdbcTemplate jdbcTemplate,
+                            @Value("${app.products.read-model.enabled:false}") boolean enabled,
+                            @Value("${app.products.page.default-size:50}") int defaultSize,
+                            @Value("${app.products.page.max-size:500}") int maxSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.defaultSize = defaultSize;
+        this.maxSize = maxSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Optional<ProductDto> findById(UUID id) {
+        CatalogSnapshot current = currentSnapshot();
+        lock.readLock().lock();
+        try {
+            return current.findById(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Same contract as ProductPageService.page, cursors included, so the two are interchangeable.
+    public ProductPageService.Page page(ProductFilter filter, ProductSort sort, boolean descending, String cursorToken, Integer size) {
+        int limit = size == null ? defaultSize : Math.max(1, Math.min(size, maxSize));
+        ProductCursor cursor = cursorToken == null || cursorToken.isBlank() ? null : ProductCursor.decode(cursorToken);
+        if (cursor != null) {
+            sort = cursor.sort();
+            descending = cursor.descending();
+        }
+
+        CatalogSnapshot current = currentSnapshot();
+        lock.readLock().lock();
+        try {
+            if (!current.hasOrder(sort)) {
+                // the ordering is rebuilt lazily after a change that moved rows; downgrade once done
+                lock.readLock().unlock();
+                lock.writeLock().lock();
+                try {
+                    current.prepareOrder(sort);
+                } finally {
+                    // re-taken even when prepareOrder fails, so the outer finally has a read lock to release
+                    lock.readLock().lock();
+                    lock.writeLock().unlock();
+                }
+            }
+            return current.page(filter, sort, descending, cursor, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Visits every product matching the filter with its category, price in cents (NO_PRICE for none)
+    // and whether it is in stock.
+    void forEachMatch(ProductFilter filter, CatalogSnapshot.MatchVisitor visitor) {
+        CatalogSnapshot current = currentSnapshot();
+        lock.readLock().lock();
+        try {
+            current.forEachMatch(filter, visitor);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        CatalogSnapshot current = snapshot;
+        if (current == null) {
+            stats.put("built", false);
+            return stats;
+        }
+        stats.put("built", true);
+        stats.put("lastBuildMs", lastBuildMs);
+        lock.readLock().lock();
+        try {
+            stats.putAll(current.memory());
+        } finally {
+            lock.readLock().unlock();
+        }
+        return stats;
+    }
+
+    // Runs ahead of the other listeners, CatalogVersion in particular: a request carrying the new
+    // ETag must already see the change here.
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsChanged(ProductsChangedEvent event) {
+        if (!enabled) return;
+        if (event.isCatalogReset()) {
+            synchronized (updateLock) {
+                snapshot = null;
+                generation++;
+            }
+            return;
+        }
+
+        Set<UUID> ids = new HashSet<>();
+        event.getProducts().forEach(product -> {
+            if (product.getId() != null) ids.add(product.getId());
+        });
+        if (ids.isEmpty()) return;
+
+        // serialized so two updates of the same product cannot be applied in the wrong order
+        synchronized (updateLock) {
+            if (changedDuringBuild != null) changedDuringBuild.addAll(ids);
+            CatalogSnapshot current = snapshot;
+            if (current != null) refresh(current, ids);
+        }
+    }
+
+    private CatalogSnapshot currentSnapshot() {
+        if (!enabled) {
+            throw new IllegalStateException("Catalog read model is disabled");
+        }
+        CatalogSnapshot current = snapshot;
+        if (current != null) return current;
+
+        synchronized (buildLock) {
+            if (snapshot != null) return snapshot;
+
+            long startedGeneration;
+            synchronized (updateLock) {
+                changedDuringBuild = new HashSet<>();
+                startedGeneration = generation;
+            }
+
+            long started = System.currentTimeMillis();
+            Integer count = jdbcTemplate.getJdbcTemplate().queryForObject("SELECT COUNT(*) FROM products", Integer.class);
+            CatalogSnapshot fresh = new CatalogSnapshot(count == null ? 0 : count + count / 8);
+            try {
+                jdbcTemplate.getJdbcTemplate().query(con -> {
+                    PreparedStatement ps = con.prepareStatement(ROW_SELECT);
+                    ps.setFetchSize(1000);
+                    return ps;
+                }, (RowCallbackHandler) rs -> put(fresh, rs));
+            } catch (RuntimeException e) {
+                synchronized (updateLock) {
+                    changedDuringBuild = null;
+                }
+                throw e;
+            }
+
+            synchronized (updateLock) {
+                Set<UUID> changed = changedDuringBuild;
+                changedDuringBuild = null;
+                if (!changed.isEmpty()) refresh(fresh, changed);
+                // a catalog reset during the scan makes this build stale; it still answers the caller
+                if (generation == startedGeneration) snapshot = fresh;
+            }
+            lastBuildMs = System.currentTimeMillis() - started;
+            Map<String, Object> memory = fresh.memory();
+            System.out.println("Catalog read model built with " + memory.get("products") + " products in "
+                    + lastBuildMs + " ms, ~" + memory.get("bytesPerProduct") + " bytes per product");
+            return fresh;
+        }
+    }
+
+    // Rows are read before taking the write lock, so readers only wait for the array updates.
+    // Products that no longer exist are dropped.
+    private void refresh(CatalogSnapshot target, Set<UUID> ids) {
+        List<UUID> pending = new ArrayList<>(ids);
+        for (int from = 0; from < pending.size(); from += REFRESH_BATCH) {
+            List<UUID> batch = pending.subList(from, Math.min(from + REFRESH_BATCH, pending.size()));
+            List<Object[]> rows = jdbcTemplate.query(ROW_SELECT + " WHERE p.id IN (:ids)", Map.of("ids", batch),
+                    (rs, rowNum) -> new Object[]{
+                            rs.getObject(1, UUID.class), rs.getString(2), rs.getString(3), rs.getBigDecimal(4),
+                            rs.getObject(5, Integer.class), rs.getObject(6, Instant.class),
+                            rs.getObject(7, UUID.class), rs.getString(8), rs.getObject(9, Instant.class)});
+
+            Set<UUID> missing = new HashSet<>(batch);
+            lock.writeLock().lock();
+            try {
+                for (Object[] row : rows) {
+                    missing.remove((UUID) row[0]);
+                    target.put((UUID) row[0], (String) row[1], (String) row[2], (BigDecimal) row[3], (Integer) row[4],
+                            (Instant) row[5], (UUID) row[6], (String) row[7], (Instant) row[8]);
+                }
+                missing.forEach(target::remove);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private static void put(CatalogSnapshot target, ResultSet rs) throws SQLException {
+        target.put(rs.getObject(1, UUID.class), rs.getString(2), rs.getString(3), rs.getBigDecimal(4),
+                rs.getObject(5, Integer.class), rs.getObject(6, Instant.class),
+                rs.getObject(7, UUID.class), rs.getString(8), rs.getObject(9, Instant.class));
+    }
+}
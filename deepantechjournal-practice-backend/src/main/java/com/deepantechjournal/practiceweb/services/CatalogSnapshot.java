@@ -0,0 +1,413 @@
+package com.deepantechjournal.practiceweb.services;
+
+import com.deepantechjournal.practiceweb.dto.CategoryDto;
+import com.deepantechjournal.practiceweb.dto.ProductDto;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntPredicate;
+
+// Columnar copy of the catalog behind CatalogReadModel. Row i of every array is one product: the id
+// as two longs, the price in cents, stock as an int and the category as an index into a table of
+// shared CategoryDto instances. Ids map to rows through an open-addressing table of row numbers.
+// Not thread-safe; CatalogReadModel guards it with a read/write lock.
+final class CatalogSnapshot {
+
+    static final int PRICE_SCALE = 2; // products.price is numeric(10, 2)
+    static final long NO_PRICE = Long.MIN_VALUE;
+    private static final int NO_STOCK = Integer.MIN_VALUE;
+    private static final int NO_CATEGORY = -1;
+
+    interface MatchVisitor {
+        void visit(CategoryDto category, long priceCents, boolean inStock);
+    }
+
+    private int size;
+    private long[] idHigh;
+    private long[] idLow;
+    private String[] names;
+    private String[] descriptions;
+    private long[] prices;
+    private int[] stocks;
+    private int[] categories;
+    private long[] createdSeconds;
+    private int[] createdNanos;
+    // products that disappeared since the last full build; a catalog reset rebuilds from scratch
+    private final BitSet removed = new BitSet();
+    private int removedCount;
+
+    // row + 1 per slot, 0 = free; the length is a power of two at least twice the capacity
+    private int[] slots;
+
+    private final List<CategoryDto> categoryTable = new ArrayList<>();
+    private final Map<UUID, Integer> categoryIndex = new HashMap<>();
+
+    // per sort key, the live rows ascending by (key nulls last, id); null after a change that moved rows
+    private final int[][] orders = new int[ProductSort.values().length][];
+    private final int[] nonNullCounts = new int[ProductSort.values().length];
+
+    CatalogSnapshot(int expectedSize) {
+        int capacity = Math.max(16, expectedSize);
+        idHigh = new long[capacity];
+        idLow = new long[capacity];
+        names = new String[capacity];
+        descriptions = new String[capacity];
+        prices = new long[capacity];
+        stocks = new int[capacity];
+        categories = new int[capacity];
+        createdSeconds = new long[capacity];
+        createdNanos = new int[capacity];
+        slots = new int[tableSize(capacity)];
+    }
+
+    int size() {
+        return size - removedCount;
+    }
+
+    void put(UUID id, String name, String description, BigDecimal price, Integer stock, Instant createdAt,
+             UUID categoryId, String categoryName, Instant categoryCreatedAt) {
+        long cents = price == null ? NO_PRICE : cents(price, RoundingMode.UNNECESSARY);
+        int row = find(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        if (row < 0) {
+            row = append(id);
+            invalidateOrders();
+        } else if (removed.get(row)) {
+            removed.clear(row);
+            removedCount--;
+            invalidateOrders();
+        } else if (!Objects.equals(names[row], name) || prices[row] != cents
+                || createdSeconds[row] != createdAt.getEpochSecond() || createdNanos[row] != createdAt.getNano()) {
+            invalidateOrders();
+        }
+        // stock-only changes, the common case during a sale, keep every ordering
+
+        names[row] = name;
+        descriptions[row] = description;
+        prices[row] = cents;
+        stocks[row] = stock == null ? NO_STOCK : stock;
+        categories[row] = category(categoryId, categoryName, categoryCreatedAt);
+        createdSeconds[row] = createdAt.getEpochSecond();
+        createdNanos[row] = createdAt.getNano();
+    }
+
+    void remove(UUID id) {
+        int row = find(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        if (row < 0 || removed.get(row)) return;
+        removed.set(row);
+        removedCount++;
+        names[row] = null;
+        descriptions[row] = null;
+        invalidateOrders();
+    }
+
+    Optional<ProductDto> findById(UUID id) {
+        int row = find(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        return row < 0 || removed.get(row) ? Optional.empty() : Optional.of(toDto(row));
+    }
+
+    boolean hasOrder(ProductSort sort) {
+        return orders[sort.ordinal()] != null;
+    }
+
+    void prepareOrder(ProductSort sort) {
+        if (hasOrder(sort)) return;
+        int[] order = new int[size()];
+        int n = 0;
+        int nonNull = 0;
+        for (int row = 0; row < size; row++) {
+            if (removed.get(row)) continue;
+            order[n++] = row;
+            if (!isNull(sort, row)) nonNull++;
+        }
+        sort(order, (a, b) -> {
+            int cmp = compareKeys(sort, a, b);
+            return cmp != 0 ? cmp : compareIds(a, b);
+        });
+        orders[sort.ordinal()] = order;
+        nonNullCounts[sort.ordinal()] = nonNull;
+    }
+
+    // Same rows and order as ProductPageService would return; needs prepareOrder(sort) first.
+    ProductPageService.Page page(ProductFilter filter, ProductSort sort, boolean descending, ProductCursor cursor, int limit) {
+        int[] order = orders[sort.ordinal()];
+        int nonNull = nonNullCounts[sort.ordinal()];
+
+        int start = 0;
+        if (cursor != null) {
+            // first position sorting after the cursor
+            int lo = 0;
+            int hi = order.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (compareToCursor(sort, descending, at(order, nonNull, descending, mid), cursor) > 0) {
+                    hi = mid;
+                } else {
+                    lo = mid + 1;
+                }
+            }
+            start = lo;
+        }
+
+        IntPredicate matches = matcher(filter);
+        List<ProductDto> items = new ArrayList<>();
+        for (int i = start; i < order.length; i++) {
+            int row = at(order, nonNull, descending, i);
+            if (!matches.test(row)) continue;
+            if (items.size() == limit) {
+                String next = ProductCursor.after(items.get(limit - 1), sort, descending).encode();
+                return new ProductPageService.Page(items, next);
+            }
+            items.add(toDto(row));
+        }
+        return new ProductPageService.Page(items, null);
+    }
+
+    void forEachMatch(ProductFilter filter, MatchVisitor visitor) {
+        IntPredicate matches = matcher(filter);
+        for (int row = 0; row < size; row++) {
+            if (removed.get(row) || !matches.test(row)) continue;
+            int category = categories[row];
+            visitor.visit(category == NO_CATEGORY ? null : categoryTable.get(category), prices[row], stocks[row] > 0);
+        }
+    }
+
+    // Estimated retained size in bytes, assuming a 64-bit JVM with compressed oops and compact strings.
+    Map<String, Object> memory() {
+        int capacity = idHigh.length;
+        // idHigh, idLow, prices, createdSeconds: 8 each; names, descriptions (refs), stocks, categories, createdNanos: 4 each
+        long arrays = 5L * 16 + (long) capacity * (4 * 8 + 5 * 4) + 16 + 4L * slots.length + capacity / 8;
+        for (int[] order : orders) {
+            if (order != null) arrays += 16 + 4L * order.length;
+        }
+        long text = 0;
+        for (int row = 0; row < size; row++) {
+            if (removed.get(row)) continue;
+            text += stringBytes(names[row]) + stringBytes(descriptions[row]);
+        }
+        long categoryBytes = 0;
+        for (CategoryDto category : categoryTable) {
+            // CategoryDto + UUID + Instant + name, plus the index entry
+            categoryBytes += 24 + 32 + 24 + stringBytes(category.getName()) + 64;
+        }
+
+        int products = size();
+        long total = arrays + text + categoryBytes;
+        Map<String, Object> memory = new LinkedHashMap<>();
+        memory.put("products", products);
+        memory.put("capacity", capacity);
+        memory.put("categories", categoryTable.size());
+        memory.put("arrayBytes", arrays);
+        memory.put("textBytes", text);
+        memory.put("categoryBytes", categoryBytes);
+        memory.put("totalBytes", total);
+        memory.put("bytesPerProduct", products == 0 ? 0 : total / products);
+        memory.put("bytesPerProductExcludingText", products == 0 ? 0 : (arrays + categoryBytes) / products);
+        return memory;
+    }
+
+    private ProductDto toDto(int row) {
+        int category = categories[row];
+        return new ProductDto(
+                new UUID(idHigh[row], idLow[row]),
+                names[row],
+                descriptions[row],
+                prices[row] == NO_PRICE ? null : BigDecimal.valueOf(prices[row], PRICE_SCALE),
+                stocks[row] == NO_STOCK ? null : stocks[row],
+                category == NO_CATEGORY ? null : categoryTable.get(category),
+                Instant.ofEpochSecond(createdSeconds[row], createdNanos[row]));
+    }
+
+    private IntPredicate matcher(ProductFilter filter) {
+        IntPredicate matches = row -> true;
+        if (!filter.categoryIds().isEmpty()) {
+            BitSet wanted = new BitSet();
+            for (UUID id : filter.categoryIds()) {
+                Integer index = categoryIndex.get(id);
+                if (index != null) wanted.set(index);
+            }
+            matches = matches.and(row -> categories[row] != NO_CATEGORY && wanted.get(categories[row]));
+        }
+        if (filter.minPrice() != null) {
+            long min = cents(filter.minPrice(), RoundingMode.CEILING);
+            matches = matches.and(row -> prices[row] != NO_PRICE && prices[row] >= min);
+        }
+        if (filter.maxPrice() != null) {
+            long max = cents(filter.maxPrice(), RoundingMode.FLOOR);
+            matches = matches.and(row -> prices[row] != NO_PRICE && prices[row] <= max);
+        }
+        // NO_STOCK is below zero, so it counts as out of stock like a null does in SQL
+        if (Boolean.TRUE.equals(filter.inStock())) matches = matches.and(row -> stocks[row] > 0);
+        if (Boolean.FALSE.equals(filter.inStock())) matches = matches.and(row -> stocks[row] <= 0);
+        return matches;
+    }
+
+    // position i of the ordering for the requested direction; nulls stay last either way
+    private static int at(int[] order, int nonNull, boolean descending, int i) {
+        if (!descending) return order[i];
+        return i < nonNull ? order[nonNull - 1 - i] : order[order.length - 1 - (i - nonNull)];
+    }
+
+    private int compareToCursor(ProductSort sort, boolean descending, int row, ProductCursor cursor) {
+        boolean rowNull = isNull(sort, row);
+        boolean cursorNull = cursor.value() == null;
+        if (rowNull != cursorNull) return rowNull ? 1 : -1;
+        int cmp = rowNull ? 0 : compareKeyTo(sort, row, cursor.value());
+        if (cmp == 0) {
+            cmp = Long.compareUnsigned(idHigh[row], cursor.id().getMostSignificantBits());
+            if (cmp == 0) cmp = Long.compareUnsigned(idLow[row], cursor.id().getLeastSignificantBits());
+        }
+        return descending ? -cmp : cmp;
+    }
+
+    private int compareKeyTo(ProductSort sort, int row, Object value) {
+        return switch (sort) {
+            case CREATED_AT -> {
+                Instant instant = (Instant) value;
+                int cmp = Long.compare(createdSeconds[row], instant.getEpochSecond());
+                yield cmp != 0 ? cmp : Integer.compare(createdNanos[row], instant.getNano());
+            }
+            case NAME -> names[row].compareTo((String) value);
+            case PRICE -> BigDecimal.valueOf(prices[row], PRICE_SCALE).compareTo((BigDecimal) value);
+        };
+    }
+
+    // ascending, nulls last, as the database orders them
+    private int compareKeys(ProductSort sort, int a, int b) {
+        boolean aNull = isNull(sort, a);
+        boolean bNull = isNull(sort, b);
+        if (aNull || bNull) return aNull == bNull ? 0 : aNull ? 1 : -1;
+        return switch (sort) {
+            case CREATED_AT -> {
+                int cmp = Long.compare(createdSeconds[a], createdSeconds[b]);
+                yield cmp != 0 ? cmp : Integer.compare(createdNanos[a], createdNanos[b]);
+            }
+            case NAME -> names[a].compareTo(names[b]);
+            case PRICE -> Long.compare(prices[a], prices[b]);
+        };
+    }
+
+    // H2 orders UUIDs as unsigned 128-bit numbers, unlike UUID.compareTo
+    private int compareIds(int a, int b) {
+        int cmp = Long.compareUnsigned(idHigh[a], idHigh[b]);
+        return cmp != 0 ? cmp : Long.compareUnsigned(idLow[a], idLow[b]);
+    }
+
+    private boolean isNull(ProductSort sort, int row) {
+        return switch (sort) {
+            case CREATED_AT -> false;
+            case NAME -> names[row] == null;
+            case PRICE -> prices[row] == NO_PRICE;
+        };
+    }
+
+    private void invalidateOrders() {
+        Arrays.fill(orders, null);
+    }
+
+    private int category(UUID id, String name, Instant createdAt) {
+        if (id == null) return NO_CATEGORY;
+        Integer index = categoryIndex.get(id);
+        if (index == null) {
+            index = categoryTable.size();
+            categoryTable.add(new CategoryDto(id, name == null ? null : name.intern(), createdAt));
+            categoryIndex.put(id, index);
+        } else if (!Objects.equals(categoryTable.get(index).getName(), name)) {
+            categoryTable.set(index, new CategoryDto(id, name == null ? null : name.intern(), createdAt));
+        }
+        return index;
+    }
+
+    private int append(UUID id) {
+        if (size == idHigh.length) grow(size + (size >> 1));
+        int row = size++;
+        idHigh[row] = id.getMostSignificantBits();
+        idLow[row] = id.getLeastSignificantBits();
+        insertSlot(row);
+        return row;
+    }
+
+    private int find(long high, long low) {
+        int mask = slots.length - 1;
+        for (int i = slot(high, low, mask); slots[i] != 0; i = (i + 1) & mask) {
+            int row = slots[i] - 1;
+            if (idHigh[row] == high && idLow[row] == low) return row;
+        }
+        return -1;
+    }
+
+    private void insertSlot(int row) {
+        int mask = slots.length - 1;
+        int i = slot(idHigh[row], idLow[row], mask);
+        while (slots[i] != 0) i = (i + 1) & mask;
+        slots[i] = row + 1;
+    }
+
+    private static int slot(long high, long low, int mask) {
+        long h = (high ^ low) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void grow(int capacity) {
+        idHigh = Arrays.copyOf(idHigh, capacity);
+        idLow = Arrays.copyOf(idLow, capacity);
+        names = Arrays.copyOf(names, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        stocks = Arrays.copyOf(stocks, capacity);
+        categories = Arrays.copyOf(categories, capacity);
+        createdSeconds = Arrays.copyOf(createdSeconds, capacity);
+        createdNanos = Arrays.copyOf(createdNanos, capacity);
+        slots = new int[tableSize(capacity)];
+        for (int row = 0; row < size; row++) {
+            insertSlot(row);
+        }
+    }
+
+    private static int tableSize(int capacity) {
+        return Integer.highestOneBit(Math.max(capacity, 8) * 2 - 1) << 1;
+    }
+
+    // Filter bounds are rounded inwards (a minimum of 9.995 only admits 10.00 and up); values
+    // outside the long range are clamped since no stored price can reach them.
+    private static long cents(BigDecimal value, RoundingMode rounding) {
+        BigInteger unscaled = value.setScale(PRICE_SCALE, rounding).unscaledValue();
+        if (unscaled.bitLength() < 64) return unscaled.longValue();
+        return unscaled.signum() > 0 ? Long.MAX_VALUE : Long.MIN_VALUE + 1;
+    }
+
+    private static long stringBytes(String value) {
+        if (value == null) return 0;
+        boolean latin1 = true;
+        for (int i = 0; i < value.length() && latin1; i++) {
+            latin1 = value.charAt(i) < 256;
+        }
+        long payload = latin1 ? value.length() : 2L * value.length();
+        // String object + byte[] header, padded to 8
+        return 24 + ((16 + payload + 7) & ~7L);
+    }
+
+    // bottom-up merge sort over row numbers; rows mostly arrive in created order, which it exploits
+    private static void sort(int[] rows, IntBinaryOperator comparator) {
+        int[] buffer = new int[rows.length];
+        for (int width = 1; width < rows.length; width <<= 1) {
+            for (int lo = 0; lo < rows.length - width; lo += width << 1) {
+                int mid = lo + width;
+                int hi = Math.min(lo + (width << 1), rows.length);
+                if (comparator.applyAsInt(rows[mid - 1], rows[mid]) <= 0) continue;
+                System.arraycopy(rows, lo, buffer, lo, hi - lo);
+                int i = lo;
+                int j = mid;
+                int k = lo;
+                while (i < mid && j < hi) {
+                    rows[k++] = comparator.applyAsInt(buffer[i], buffer[j]) <= 0 ? buffer[i++] : buffer[j++];
+                }
+                while (i < mid) rows[k++] = buffer[i++];
+                while (j < hi) rows[k++] = buffer[j++];
+            }
+        }
+    }
+}
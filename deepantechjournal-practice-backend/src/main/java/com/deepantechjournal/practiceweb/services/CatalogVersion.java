@@ -0,0 +1,44 @@
+package com.deepantechjournal.practiceweb.services;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Monotonic version of everything the product read endpoints serve, bumped after every committed
+// product (or product image) change. Lets those endpoints answer conditional GETs with a 304
+// before touching the database.
+@Service
+public class CatalogVersion {
+
+    // the in-memory catalog starts empty on every boot, so versions from a previous run must not match
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong();
+    // time of the last change, truncated to the whole second an HTTP date can carry
+    private volatile long lastModified = wholeSecond(System.currentTimeMillis());
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsChanged(ProductsChangedEvent event) {
+        lastModified = wholeSecond(System.currentTimeMillis());
+        version.incrementAndGet();
+    }
+
+    public String etag(String variant) {
+        return "\"" + epoch + "-" + version.get() + (variant == null ? "" : "-" + variant) + "\"";
+    }
+
+    // Read before the data query: a change committing in between yields new data under the old tag,
+    // which only costs the client one extra full response, never a stale 304.
+    public boolean checkNotModified(WebRequest request, String variant) {
+        // While the last change is in the current second another one can still follow within it under
+        // the same HTTP date, so Last-Modified is neither sent nor matched and only the ETag counts.
+        long modified = lastModified;
+        if (modified >= wholeSecond(System.currentTimeMillis())) modified = -1;
+        return request.checkNotModified(etag(variant), modified);
+    }
+
+    private static long wholeSecond(long millis) {
+        return millis / 1000 * 1000;
+    }
+}
@@ -0,0 +1,72 @@
+package com.deepantechjournal.practiceweb.services;
+
+import com.deepantechjournal.practiceweb.models.Category;
+import com.deepantechjournal.practiceweb.repositories.CategoryRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Case-insensitive name -> Category cache used by the bulk imports, so resolving categories costs
+// one query per distinct category instead of one per row.
+@Service
+public class CategoryCache {
+
+    private final CategoryRepository categoryRepository;
+    private final TransactionTemplate newTransaction;
+    private final Map<String, Category> byName = new ConcurrentHashMap<>();
+
+    public CategoryCache(CategoryRepository categoryRepository,
+                         PlatformTransactionManager transactionManager) {
+        this.categoryRepository = categoryRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public void warm() {
+        byName.clear();
+        for (Category category : categoryRepository.findAll()) {
+            byName.putIfAbsent(key(category.getName()), category);
+        }
+    }
+
+    public void invalidateAll() {
+        byName.clear();
+    }
+
+    @EventListener
+    public void onProductsChanged(ProductsChangedEvent event) {
+        if (event.isCatalogReset()) invalidateAll();
+    }
+
+    // computeIfAbsent serializes concurrent imports asking for the same new category inside this JVM;
+    // the unique constraint plus a re-read covers writers outside it.
+    public Category getOrCreate(String name) {
+        Category cached = byName.get(key(name));
+        if (cached != null) return cached;
+        return byName.computeIfAbsent(key(name), k -> findOrCreate(name));
+    }
+
+    private Category findOrCreate(String name) {
+        try {
+            // committed on its own so the cached row survives a rollback of the caller's chunk
+            return newTransaction.execute(status -> categoryRepository
+                    .findByNameIgnoreCase(name)
+                    .orElseGet(() -> categoryRepository.saveAndFlush(
+                            Category.builder().name(name).build()
+                    )));
+        } catch (DataIntegrityViolationException e) {
+            return categoryRepository.findByNameIgnoreCase(name).orElseThrow(() -> e);
+        }
+    }
+
+    private String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,36 @@
+package com.deepantechjournal.practiceweb.services;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+@Getter
+public class ChunkedUpload {
+
+    private final String id;
+    private final ImportFormat format;
+    private final String fileName;
+    private final long totalSize; // -1 when the client did not announce it
+    private final Path partFile;
+    private final Instant createdAt = Instant.now();
+    private volatile long received;
+    private volatile Instant updatedAt = createdAt;
+
+    ChunkedUpload(String id, ImportFormat format, String fileName, long totalSize, Path partFile) {
+        this.id = id;
+        this.format = format;
+        this.fileName = fileName;
+        this.totalSize = totalSize;
+        this.partFile = partFile;
+    }
+
+    public boolean isComplete() {
+        return totalSize < 0 || received == totalSize;
+    }
+
+    void advanceTo(long offset) {
+        received = offset;
+        updatedAt = Instant.now();
+    }
+}
@@ -0,0 +1,162 @@
+package com.deepantechjournal.practiceweb.services;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Resumable uploads: init -> append chunks at the current offset -> complete.
+// Chunks go straight from the request stream into a staging file, so nothing is buffered on the heap
+// and a dropped connection only loses the tail of the chunk that was in flight.
+@Service
+public class ChunkedUploadService {
+
+    private static final long TRANSFER_SLICE = 8L * 1024 * 1024;
+
+    private final Path dir;
+    private final long maxFileSize;
+    private final long maxChunkSize;
+    private final Duration retention;
+    private final Map<String, ChunkedUpload> uploads = new ConcurrentHashMap<>();
+
+    public ChunkedUploadService(@Value("${app.bulk.uploads.dir:bulk-uploads}") String dir,
+                                @Value("${app.bulk.uploads.max-file-size:10737418240}") long maxFileSize,
+                                @Value("${app.bulk.uploads.max-chunk-size:67108864}") long maxChunkSize,
+                                @Value("${app.bulk.uploads.retention-hours:24}") long retentionHours) {
+        this.dir = Paths.get(dir).toAbsolutePath().normalize();
+        this.maxFileSize = maxFileSize;
+        this.maxChunkSize = maxChunkSize;
+        this.retention = Duration.ofHours(retentionHours);
+    }
+
+    public ChunkedUpload start(ImportFormat format, String fileName, long totalSize) throws IOException {
+        if (totalSize > maxFileSize) {
+            throw new IllegalArgumentException("File is larger than the " + maxFileSize + " byte limit");
+        }
+        Files.createDirectories(dir);
+        String id = UUID.randomUUID().toString();
+        Path partFile = Files.createFile(dir.resolve(id + format.getExtension() + ".part"));
+        ChunkedUpload upload = new ChunkedUpload(id, format, fileName, totalSize, partFile);
+        uploads.put(id, upload);
+        return upload;
+    }
+
+    public Optional<ChunkedUpload> find(String id) {
+        return Optional.ofNullable(uploads.get(id));
+    }
+
+    // Appends length bytes read from in at offset, which must equal what has been received so far.
+    // Whatever arrives before the stream breaks is kept, so the client resumes from the returned offset.
+    public long append(ChunkedUpload upload, long offset, InputStream in, long length) throws IOException {
+        if (length > maxChunkSize) {
+            throw new IllegalArgumentException("Chunk is larger than the " + maxChunkSize + " byte limit");
+        }
+        synchronized (upload) {
+            if (!uploads.containsKey(upload.getId())) {
+                throw new IllegalStateException("Upload " + upload.getId() + " is no longer open");
+            }
+            if (offset != upload.getReceived()) {
+                throw new OffsetMismatchException(upload.getReceived());
+            }
+            long limit = upload.getTotalSize() >= 0 ? upload.getTotalSize() : maxFileSize;
+            if (offset + length > limit) {
+                throw new IllegalArgumentException("Chunk runs past the end of the file");
+            }
+
+            long position = offset;
+            try (FileChannel channel = FileChannel.open(upload.getPartFile(), StandardOpenOption.WRITE)) {
+                // drop anything a previous, interrupted chunk may have left past the acknowledged offset
+                channel.truncate(offset);
+                ReadableByteChannel source = Channels.newChannel(in);
+                long end = offset + length;
+                while (position < end) {
+                    long transferred = channel.transferFrom(source, position, Math.min(TRANSFER_SLICE, end - position));
+                    if (transferred <= 0) break; // client closed the stream early
+                    position += transferred;
+                }
+            } finally {
+                upload.advanceTo(position);
+            }
+            return position;
+        }
+    }
+
+    // Closes the upload and hands the staged file over to the caller, who becomes responsible for deleting it.
+    public Path complete(ChunkedUpload upload) throws IOException {
+        synchronized (upload) {
+            if (!upload.isComplete()) {
+                throw new IllegalStateException("Upload is incomplete: received " + upload.getReceived()
+                        + " of " + upload.getTotalSize() + " bytes");
+            }
+            if (uploads.remove(upload.getId()) == null) {
+                throw new IllegalStateException("Upload " + upload.getId() + " is no longer open");
+            }
+            Path staged = dir.resolve(upload.getId() + upload.getFormat().getExtension());
+            return Files.move(upload.getPartFile(), staged, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    public boolean abort(String id) {
+        ChunkedUpload upload = uploads.remove(id);
+        if (upload == null) return false;
+        synchronized (upload) {
+            deleteQuietly(upload.getPartFile());
+        }
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${app.bulk.uploads.cleanup-interval-ms:3600000}")
+    public void purgeExpired() {
+        Instant cutoff = Instant.now().minus(retention);
+        uploads.values().stream()
+                .filter(upload -> upload.getUpdatedAt().isBefore(cutoff))
+                .map(ChunkedUpload::getId)
+                .toList()
+                .forEach(this::abort);
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.out.println("Failed to delete upload staging file " + path + ": " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // sessions live in memory only, so their half-written files would be orphaned after a restart
+        uploads.keySet().forEach(this::abort);
+    }
+
+    public static class OffsetMismatchException extends RuntimeException {
+
+        private final long expectedOffset;
+
+        OffsetMismatchException(long expectedOffset) {
+            super("Expected offset " + expectedOffset);
+            this.expectedOffset = expectedOffset;
+        }
+
+        public long getExpectedOffset() {
+            return expectedOffset;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.deepantechjournal.practiceweb.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+public class ErrorReportStore {
+
+    private final Path dir;
+    private final boolean gzip;
+    private final Duration retention;
+
+    public ErrorReportStore(@Value("${app.bulk.reports.dir:error-reports}") String dir,
+                            @Value("${app.bulk.reports.gzip:false}") boolean gzip,
+                            @Value("${app.bulk.reports.retention-hours:72}") long retentionHours) {
+        this.dir = Paths.get(dir).toAbsolutePath().normalize();
+        this.gzip = gzip;
+        this.retention = Duration.ofHours(retentionHours);
+    }
+
+    // suffix keeps the historical file names: "<id>.csv" for CSV and "<id>-excel.csv" for Excel
+    public ErrorReportWriter newReport(String suffix) {
+        String reportId = UUID.randomUUID().toString();
+        return new ErrorReportWriter(dir, reportId, reportId + suffix + (gzip ? ".gz" : ""), gzip);
+    }
+
+    public Optional<Path> find(String reportId) {
+        try {
+            UUID.fromString(reportId); // report ids are UUIDs; anything else could walk out of the directory
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+
+        for (String suffix : List.of(".csv", "-excel.csv", ".csv.gz", "-excel.csv.gz")) {
+            Path candidate = dir.resolve(reportId + suffix);
+            if (Files.isRegularFile(candidate)) return Optional.of(candidate);
+        }
+        return Optional.empty();
+    }
+
+    @Scheduled(fixedDelayString = "${app.bulk.reports.cleanup-interval-ms:3600000}")
+    public void purgeExpired() {
+        if (!Files.isDirectory(dir)) return;
+
+        FileTime cutoff = FileTime.from(Instant.now().minus(retention));
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) {
+                if (Files.isRegularFile(file) && Files.getLastModifiedTime(file).compareTo(cutoff) < 0) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Failed to clean up error reports: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.deepantechjournal.practiceweb.services;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.GZIPOutputStream;
+
+// Streams ERROR/SKIPPED lines to disk as rows are recorded. ERROR lines go straight into the report;
+// SKIPPED lines are spooled to a side file and appended on finish, keeping the historical layout
+// (all errors first, then all skipped rows) without holding either list in memory.
+// The report is written as "<name>.part" and only renamed into place once complete.
+public class ErrorReportWriter implements Closeable {
+
+    private static final String NEWLINE = System.lineSeparator();
+
+    private final Path dir;
+    private final String reportId;
+    private final String fileName;
+    private final boolean gzip;
+    private Path partFile;
+    private Path skippedSpool;
+    private Writer errors;
+    private Writer skipped;
+    private boolean failed;
+    private boolean finished;
+
+    ErrorReportWriter(Path dir, String reportId, String fileName, boolean gzip) {
+        this.dir = dir;
+        this.reportId = reportId;
+        this.fileName = fileName;
+        this.gzip = gzip;
+    }
+
+    public void error(String message) {
+        write(true, "ERROR," + message.replace(",", ";"));
+    }
+
+    public void skipped(String message) {
+        write(false, "SKIPPED," + message.replace(",", ";"));
+    }
+
+    // returns the report id, or null when no line was ever written or the report could not be written
+    public String finish() {
+        finished = true;
+        if (errors == null || failed) return null;
+
+        try {
+            skipped.close();
+            try (Reader spool = Files.newBufferedReader(skippedSpool, StandardCharsets.UTF_8)) {
+                spool.transferTo(errors);
+            }
+            errors.close();
+            Files.move(partFile, dir.resolve(fileName), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            fail(e);
+            return null;
+        } finally {
+            deleteQuietly(skippedSpool);
+        }
+        return reportId;
+    }
+
+    // discards a report that was never finished, e.g. when the import itself failed
+    @Override
+    public void close() {
+        if (finished || errors == null) return;
+        closeQuietly(errors);
+        closeQuietly(skipped);
+        deleteQuietly(partFile);
+        deleteQuietly(skippedSpool);
+    }
+
+    private void write(boolean error, String line) {
+        if (failed) return;
+        try {
+            open();
+            Writer target = error ? errors : skipped;
+            target.write(line);
+            target.write(NEWLINE);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void open() throws IOException {
+        if (errors != null) return;
+        Files.createDirectories(dir);
+        partFile = dir.resolve(fileName + ".part");
+        skippedSpool = dir.resolve(reportId + ".skipped.part");
+
+        OutputStream out = Files.newOutputStream(partFile);
+        if (gzip) out = new GZIPOutputStream(out, 64 * 1024);
+        errors = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        skipped = Files.newBufferedWriter(skippedSpool, StandardCharsets.UTF_8);
+
+        errors.write("Type,Message");
+        errors.write(NEWLINE);
+    }
+
+    private void fail(IOException e) {
+        System.out.println("Failed to write error report " + fileName + ": " + e.getMessage());
+        failed = true;
+        closeQuietly(errors);
+        closeQuietly(skipped);
+        deleteQuietly(partFile);
+        deleteQuietly(skippedSpool);
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) return;
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) return;
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+        }
+    }
+}
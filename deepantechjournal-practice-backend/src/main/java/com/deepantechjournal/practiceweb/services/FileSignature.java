@@ -0,0 +1,60 @@
+package com.deepantechjournal.practiceweb.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+
+// File types recognised from their leading "magic" bytes, so uploads are typed by content rather
+// than by whatever name or Content-Type the client sent.
+public enum FileSignature {
+    JPEG("image/jpeg", ".jpg"),
+    PNG("image/png", ".png"),
+    GIF("image/gif", ".gif"),
+    WEBP("image/webp", ".webp"),
+    PDF("application/pdf", ".pdf"),
+    ZIP("application/zip", ".zip"); // also xlsx/docx, which are zip containers
+
+    public static final Set<FileSignature> IMAGES = EnumSet.of(JPEG, PNG, GIF, WEBP);
+    // enough for every signature above
+    static final int HEADER_LENGTH = 12;
+
+    private final String contentType;
+    private final String extension;
+
+    FileSignature(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    static Optional<FileSignature> detect(byte[] header, int length) {
+        if (startsWith(header, length, 0xFF, 0xD8, 0xFF)) return Optional.of(JPEG);
+        if (startsWith(header, length, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) return Optional.of(PNG);
+        if (startsWith(header, length, "GIF87a") || startsWith(header, length, "GIF89a")) return Optional.of(GIF);
+        if (startsWith(header, length, "RIFF") && length >= 12
+                && new String(header, 8, 4, StandardCharsets.US_ASCII).equals("WEBP")) return Optional.of(WEBP);
+        if (startsWith(header, length, "%PDF-")) return Optional.of(PDF);
+        if (startsWith(header, length, 'P', 'K', 0x03, 0x04)) return Optional.of(ZIP);
+        return Optional.empty();
+    }
+
+    private static boolean startsWith(byte[] header, int length, String prefix) {
+        return startsWith(header, length, prefix.chars().toArray());
+    }
+
+    private static boolean startsWith(byte[] header, int length, int... prefix) {
+        if (length < prefix.length) return false;
+        for (int i = 0; i < prefix.length; i++) {
+            if ((header[i] & 0xFF) != prefix[i]) return false;
+        }
+        return true;
+    }
+}
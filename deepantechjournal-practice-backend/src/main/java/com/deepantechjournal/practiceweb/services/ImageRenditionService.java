@@ -0,0 +1,283 @@
+package com.deepantechjournal.practiceweb.services;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import net.coobird.thumbnailator.Thumbnails;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+
+// Resized/re-encoded variants ("renditions") of product images, made on first request and kept in a
+// size-bounded LRU cache directory beside the originals. Concurrent requests for the same missing
+// rendition share one generation. Formats are whatever ImageIO can write: JPEG and PNG always, WebP
+// only when a WebP ImageIO plugin is on the classpath.
+@Service
+public class ImageRenditionService {
+
+    private final ImageStorageService imageStorageService;
+    private final Path cacheDir;
+    private final long maxCacheBytes;
+    private final int maxDimension;
+    private final float jpegQuality;
+    private final ThreadPoolExecutor executor;
+
+    private final Map<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+    // access-ordered, so iteration starts at the least recently used rendition; guarded by itself
+    private final LinkedHashMap<Path, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long cachedBytes;
+
+    // An opened rendition. The stream is opened under the cache lock, so eviction can no longer take
+    // the file away from the request; the caller must close it.
+    public record Rendition(InputStream stream, long size) {
+    }
+
+    public ImageRenditionService(ImageStorageService imageStorageService,
+                                 @Value("${app.images.renditions.dir:product-images-renditions}") String cacheDir,
+                                 @Value("${app.images.renditions.max-cache-size:512MB}") DataSize maxCacheSize,
+                                 @Value("${app.images.renditions.max-dimension:2000}") int maxDimension,
+                                 @Value("${app.images.renditions.jpeg-quality:0.85}") float jpegQuality,
+                                 @Value("${app.images.renditions.pool-size:0}") int poolSize,
+                                 @Value("${app.images.renditions.queue-capacity:200}") int queueCapacity) {
+        this.imageStorageService = imageStorageService;
+        this.cacheDir = Paths.get(cacheDir).toAbsolutePath().normalize();
+        this.maxCacheBytes = maxCacheSize.toBytes();
+        this.maxDimension = maxDimension;
+        this.jpegQuality = jpegQuality;
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("rendition-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Picks up renditions left by a previous run, oldest first, and drops half-written ones.
+    @PostConstruct
+    public void loadCache() throws IOException {
+        Files.createDirectories(cacheDir);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(cacheDir)) {
+            files = listing.filter(Files::isRegularFile).toList();
+        }
+        Map<Path, BasicFileAttributes> attributes = new HashMap<>();
+        for (Path file : files) {
+            if (file.getFileName().toString().endsWith(".tmp")) {
+                Files.deleteIfExists(file);
+                continue;
+            }
+            attributes.put(file, Files.readAttributes(file, BasicFileAttributes.class));
+        }
+        attributes.entrySet().stream()
+                .sorted(Comparator.comparing(e -> e.getValue().lastModifiedTime()))
+                .forEach(e -> record(e.getKey(), e.getValue().size()));
+        System.out.println("Image rendition cache loaded with " + entries.size() + " files, " + cachedBytes + " bytes");
+    }
+
+    public Optional<Path> findOriginal(String fileName) {
+        return imageStorageService.findFile(fileName);
+    }
+
+    public Set<String> availableFormats() {
+        Set<String> formats = new TreeSet<>();
+        for (String format : new String[]{"jpeg", "png", "webp", "avif"}) {
+            if (ImageIO.getImageWritersByFormatName(format).hasNext()) formats.add(format);
+        }
+        return formats;
+    }
+
+    // "auto" serves WebP to clients that accept it (when it can be written) and the original's own
+    // format otherwise; explicit formats must be writable.
+    public String resolveFormat(String requested, Path original, String accept) {
+        String format = requested == null ? "auto" : requested.toLowerCase(Locale.ROOT);
+        if ("jpg".equals(format)) format = "jpeg";
+        if ("auto".equals(format)) {
+            if (accept != null && accept.contains("image/webp") && availableFormats().contains("webp")) return "webp";
+            String name = original.getFileName().toString().toLowerCase(Locale.ROOT);
+            return name.endsWith(".png") || name.endsWith(".gif") ? "png" : "jpeg";
+        }
+        if (!availableFormats().contains(format)) {
+            throw new IllegalArgumentException("Unsupported format, available: auto, " + String.join(", ", availableFormats()));
+        }
+        return format;
+    }
+
+    // width or height may be null to scale by the other one; renditions never upscale the original
+    public CompletableFuture<Rendition> render(Path original, Integer width, Integer height, String format) {
+        if (width == null && height == null) {
+            throw new IllegalArgumentException("width or height is required");
+        }
+        if ((width != null && (width < 1 || width > maxDimension)) || (height != null && (height < 1 || height > maxDimension))) {
+            throw new IllegalArgumentException("width and height must be between 1 and " + maxDimension);
+        }
+        int w = width == null ? 0 : width;
+        int h = height == null ? 0 : height;
+
+        String key = original.getFileName() + "-" + w + "x" + h + "." + extension(format);
+        Path target = cacheDir.resolve(key);
+        Rendition cached;
+        try {
+            cached = open(target);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        // Every waiter opens its own stream once the file exists; if it was evicted again in the
+        // meantime (only possible under heavy cache churn), it is simply rendered again.
+        return generation(original, w, h, format, key, target).thenCompose(path -> {
+            try {
+                Rendition opened = open(path);
+                return opened != null ? CompletableFuture.completedFuture(opened) : render(original, width, height, format);
+            } catch (IOException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        });
+    }
+
+    // single flight: whoever registers the future generates, everyone else waits on it
+    private CompletableFuture<Path> generation(Path original, int w, int h, String format, String key, Path target) {
+        CompletableFuture<Path> created = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) return existing;
+        try {
+            executor.execute(() -> {
+                try {
+                    created.complete(touch(target) ? target : generate(original, w, h, format, target));
+                } catch (Exception e) {
+                    created.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(key, created);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (entries) {
+            stats.put("files", entries.size());
+            stats.put("bytes", cachedBytes);
+        }
+        stats.put("maxBytes", maxCacheBytes);
+        stats.put("generating", inFlight.size());
+        stats.put("queueDepth", executor.getQueue().size());
+        stats.put("formats", availableFormats());
+        return stats;
+    }
+
+    private Path generate(Path original, int width, int height, String format, Path target) throws IOException {
+        int[] size = dimensions(original);
+        int w = width == 0 ? 0 : Math.min(width, size[0]);
+        int h = height == 0 ? 0 : Math.min(height, size[1]);
+
+        Path temp = Files.createTempFile(cacheDir, "rendition-", ".tmp");
+        try {
+            Thumbnails.Builder<File> builder = Thumbnails.of(original.toFile());
+            if (w > 0 && h > 0) {
+                builder.size(w, h).keepAspectRatio(true);
+            } else if (w > 0) {
+                builder.width(w);
+            } else {
+                builder.height(h);
+            }
+            builder.outputFormat(format);
+            if ("jpeg".equals(format)) {
+                // JPEG has no alpha channel; converting here avoids the encoder rejecting ARGB input
+                builder.imageType(BufferedImage.TYPE_INT_RGB).outputQuality(jpegQuality);
+            }
+            // written to a stream: toFile would append the format's extension to the temp name
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                builder.toOutputStream(out);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        record(target, Files.size(target));
+        return target;
+    }
+
+    private static int[] dimensions(Path original) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = in == null ? Collections.emptyIterator() : ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                throw new IllegalArgumentException("Not a readable image");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                return new int[]{reader.getWidth(0), reader.getHeight(0)};
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private boolean touch(Path target) {
+        synchronized (entries) {
+            return entries.get(target) != null;
+        }
+    }
+
+    // Opens a cached rendition, or returns null when it is not (or no longer) in the cache. Eviction
+    // deletes under the same lock, so a file is never deleted between this check and the open.
+    private Rendition open(Path target) throws IOException {
+        synchronized (entries) {
+            Long size = entries.get(target);
+            if (size == null) return null;
+            return new Rendition(Files.newInputStream(target), size);
+        }
+    }
+
+    // Least recently used renditions go first; the one just added is kept even if it alone is over
+    // the limit. Deleting a file only unlinks it: streams already handed out by open() keep reading it.
+    private void record(Path target, long size) {
+        synchronized (entries) {
+            Long previous = entries.put(target, size);
+            cachedBytes += size - (previous == null ? 0 : previous);
+
+            Iterator<Map.Entry<Path, Long>> oldest = entries.entrySet().iterator();
+            while (cachedBytes > maxCacheBytes && oldest.hasNext()) {
+                Map.Entry<Path, Long> entry = oldest.next();
+                if (entry.getKey().equals(target)) continue;
+                try {
+                    Files.deleteIfExists(entry.getKey());
+                } catch (IOException e) {
+                    System.out.println("Failed to evict rendition " + entry.getKey() + ": " + e.getMessage());
+                }
+                cachedBytes -= entry.getValue();
+                oldest.remove();
+            }
+        }
+    }
+
+    private static String extension(String format) {
+        return "jpeg".equals(format) ? "jpg" : format;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,262 @@
+package com.deepantechjournal.practiceweb.services;
+
+import com.deepantechjournal.practiceweb.models.ImageBlob;
+import com.deepantechjournal.practiceweb.models.Product;
+import com.deepantechjournal.practiceweb.models.ProductImage;
+import com.deepantechjournal.practiceweb.models.ThumbnailStatus;
+import com.deepantechjournal.practiceweb.repositories.ImageBlobRepository;
+import com.deepantechjournal.practiceweb.repositories.ProductImageRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+// Content-addressed storage for product images. Uploads are hashed (SHA-256) while they are streamed
+// to disk and stored as <hash><ext> (the extension of the detected type), so the same photo attached
+// to many products is one file with one thumbnail. ImageBlob.refCount tracks the ProductImage rows
+// sharing it; blobs left unreferenced longer than the grace period are deleted by a scheduled
+// collection.
+@Service
+public class ImageStorageService {
+
+    private static final int STRIPES = 64;
+    private static final Pattern FILE_NAME = Pattern.compile("[A-Za-z0-9_-]+\\.[A-Za-z0-9]+");
+
+    private final ImageBlobRepository blobRepository;
+    private final ProductImageRepository imageRepository;
+    private final ThumbnailService thumbnailService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transaction;
+    private final Path dir;
+    private final Path incomingDir;
+    private final Duration gcGrace;
+    private final long maxImageBytes;
+    // per-hash critical sections: reference changes, thumbnail results and collection of one blob
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    public record StoredImage(ProductImage image, boolean deduplicated) {
+    }
+
+    public ImageStorageService(ImageBlobRepository blobRepository,
+                               ProductImageRepository imageRepository,
+                               ThumbnailService thumbnailService,
+                               ApplicationEventPublisher eventPublisher,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.storage.product-images-dir}") String productImagesDir,
+                               @Value("${app.images.gc.grace-minutes:60}") long gcGraceMinutes,
+                               @Value("${app.uploads.limits.product-image:20MB}") DataSize maxImageSize) {
+        this.blobRepository = blobRepository;
+        this.imageRepository = imageRepository;
+        this.thumbnailService = thumbnailService;
+        this.eventPublisher = eventPublisher;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.dir = Paths.get(productImagesDir).toAbsolutePath().normalize();
+        // partial uploads stay out of the served directory
+        this.incomingDir = dir.resolve("incoming");
+        this.gcGrace = Duration.ofMinutes(gcGraceMinutes);
+        this.maxImageBytes = maxImageSize.toBytes();
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    // A stored image or thumbnail by its file name, as used in /images/<file> URLs.
+    public Optional<Path> findFile(String fileName) {
+        if (fileName == null || !FILE_NAME.matcher(fileName).matches()) return Optional.empty();
+        Path file = dir.resolve(fileName).normalize();
+        if (!file.startsWith(dir) || !Files.isRegularFile(file)) return Optional.empty();
+        return Optional.of(file);
+    }
+
+    public long getMaxImageBytes() {
+        return maxImageBytes;
+    }
+
+    // Streams the image body (a raw request body or a multipart part) to a staging file on the same
+    // disk, then renames it into place, so the content is written once. The type, and with it the
+    // extension, comes from the file's magic bytes; an UploadRejectedException stops the upload as
+    // soon as it is known to be of the wrong type or too large.
+    public StoredImage store(Product product, InputStream body) throws IOException {
+        Files.createDirectories(incomingDir);
+        Path temp = Files.createTempFile(incomingDir, "upload-", ".tmp");
+        try {
+            UploadReceiver.Received received;
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                received = UploadReceiver.receive(body, out, maxImageBytes, FileSignature.IMAGES);
+            }
+            return store(product, received.sha256(), received.type().getExtension(), temp);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Removes one product image; its blob is collected once nothing else references it.
+    public boolean delete(UUID productId, UUID imageId) {
+        Optional<ProductImage> found = imageRepository.findById(imageId)
+                .filter(image -> image.getProduct().getId().equals(productId));
+        if (found.isEmpty()) return false;
+        ProductImage image = found.get();
+
+        String hash = image.getContentHash();
+        ReentrantLock lock = hash == null ? null : stripe(hash);
+        if (lock != null) lock.lock();
+        try {
+            transaction.executeWithoutResult(status -> {
+                imageRepository.deleteById(imageId);
+                if (hash == null) return;
+                blobRepository.findById(hash).ifPresent(blob -> {
+                    blob.setRefCount(Math.max(0, blob.getRefCount() - 1));
+                    if (blob.getRefCount() == 0) blob.setUnreferencedAt(Instant.now());
+                    blobRepository.save(blob);
+                });
+            });
+        } finally {
+            if (lock != null) lock.unlock();
+        }
+        eventPublisher.publishEvent(ProductsChangedEvent.of(List.of(Product.builder().id(productId).build())));
+        return true;
+    }
+
+    // The grace period keeps a blob whose last image was just deleted around for a re-upload and
+    // for clients still holding its URL.
+    @Scheduled(fixedDelayString = "${app.images.gc.interval-ms:3600000}")
+    public void collectUnreferenced() {
+        Instant cutoff = Instant.now().minus(gcGrace);
+        int deleted = 0;
+        for (ImageBlob candidate : blobRepository.findByRefCountAndUnreferencedAtBefore(0, cutoff)) {
+            ReentrantLock lock = stripe(candidate.getHash());
+            lock.lock();
+            try {
+                // re-read under the lock: an upload may have referenced it again since the query
+                Optional<ImageBlob> current = blobRepository.findById(candidate.getHash());
+                if (current.isEmpty() || current.get().getRefCount() > 0) continue;
+                ImageBlob blob = current.get();
+                deleteQuietly(dir.resolve(blob.getFileName()));
+                deleteQuietly(dir.resolve(blob.getThumbnailFileName()));
+                blobRepository.delete(blob);
+                deleted++;
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (deleted > 0) {
+            System.out.println("Deleted " + deleted + " unreferenced product image files");
+        }
+    }
+
+    private StoredImage store(Product product, String hash, String ext, Path temp) throws IOException {
+        ImageBlob blob;
+        ProductImage image;
+        boolean deduplicated;
+        boolean generateThumbnail;
+
+        ReentrantLock lock = stripe(hash);
+        lock.lock();
+        try {
+            Optional<ImageBlob> existing = blobRepository.findById(hash);
+            deduplicated = existing.isPresent() && Files.isRegularFile(dir.resolve(existing.get().getFileName()));
+            if (deduplicated) {
+                blob = existing.get();
+                // a new upload of the same content is a chance to retry a failed thumbnail
+                generateThumbnail = blob.getThumbnailStatus() == ThumbnailStatus.FAILED;
+            } else {
+                // first upload of this content, or its file went missing: (re)store it
+                blob = existing.orElseGet(() -> ImageBlob.builder()
+                        .hash(hash)
+                        .fileName(hash + ext)
+                        .thumbnailFileName(hash + "_thumb" + ext)
+                        .createdAt(Instant.now())
+                        .build());
+                Files.move(temp, dir.resolve(blob.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+                blob.setSize(Files.size(dir.resolve(blob.getFileName())));
+                generateThumbnail = true;
+            }
+            if (generateThumbnail) blob.setThumbnailStatus(ThumbnailStatus.PENDING);
+            blob.setRefCount(blob.getRefCount() + 1);
+            blob.setUnreferencedAt(null);
+
+            image = ProductImage.builder()
+                    .product(product)
+                    .contentHash(hash)
+                    .imageUrl(url(blob.getFileName()))
+                    .thumbnailUrl(blob.getThumbnailStatus() == ThumbnailStatus.READY ? url(blob.getThumbnailFileName()) : null)
+                    .thumbnailStatus(blob.getThumbnailStatus())
+                    .createdAt(Instant.now())
+                    .build();
+            ImageBlob toSave = blob;
+            transaction.executeWithoutResult(status -> {
+                blobRepository.save(toSave);
+                imageRepository.save(image);
+            });
+        } finally {
+            lock.unlock();
+        }
+
+        // queued after the commit, so the result reaches this row along with every other one sharing the blob
+        if (generateThumbnail) {
+            boolean queued = thumbnailService.submit(dir.resolve(blob.getFileName()),
+                    dir.resolve(blob.getThumbnailFileName()),
+                    status -> thumbnailDone(hash, status));
+            if (!queued) {
+                thumbnailDone(hash, ThumbnailStatus.FAILED);
+                image.setThumbnailStatus(ThumbnailStatus.FAILED);
+            }
+        }
+        return new StoredImage(image, deduplicated);
+    }
+
+    private void thumbnailDone(String hash, ThumbnailStatus status) {
+        List<UUID> productIds;
+        ReentrantLock lock = stripe(hash);
+        lock.lock();
+        try {
+            productIds = transaction.execute(tx -> {
+                Optional<ImageBlob> blob = blobRepository.findById(hash);
+                if (blob.isEmpty()) return List.<UUID>of();
+                blob.get().setThumbnailStatus(status);
+                blobRepository.save(blob.get());
+                String thumbnailUrl = status == ThumbnailStatus.READY ? url(blob.get().getThumbnailFileName()) : null;
+                imageRepository.updateThumbnailByContentHash(hash, thumbnailUrl, status);
+                return imageRepository.findProductIdsByContentHash(hash);
+            });
+        } finally {
+            lock.unlock();
+        }
+        if (productIds == null || productIds.isEmpty()) return;
+        // those products' image lists changed, so their cached views and ETags are stale
+        List<Product> products = productIds.stream().map(id -> Product.builder().id(id).build()).toList();
+        eventPublisher.publishEvent(ProductsChangedEvent.of(products));
+    }
+
+    private static String url(String fileName) {
+        return "/images/" + fileName;
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.out.println("Failed to delete image file " + path + ": " + e.getMessage());
+        }
+    }
+
+    private ReentrantLock stripe(String hash) {
+        return stripes[Math.floorMod(hash.hashCode(), STRIPES)];
+    }
+}
@@ -0,0 +1,16 @@
+package com.deepantechjournal.practiceweb.services;
+
+public enum ImportFormat {
+    CSV(".csv"),
+    XLSX(".xlsx");
+
+    private final String extension;
+
+    ImportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,8 @@
+package com.deepantechjournal.practiceweb.services;
+
+// INSERT skips rows whose product name already exists; UPSERT refreshes price, stock, description
+// and category of those products instead.
+public enum ImportMode {
+    INSERT,
+    UPSERT
+}
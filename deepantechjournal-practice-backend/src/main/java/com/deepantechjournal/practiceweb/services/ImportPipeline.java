@@ -0,0 +1,131 @@
+package com.deepantechjournal.practiceweb.services;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Runs one import as three stages linked by a bounded queue:
+//   parse    - the source reads raw rows on its own thread and cuts them into batches
+//   validate - each batch is converted on the shared validation pool
+//   persist  - the calling thread takes batches in file order and writes them
+// The queue holds futures in submission order, so rows reach the writer (and the error report)
+// in file order no matter which validation batch finishes first.
+class ImportPipeline<R> {
+
+    interface Source<R> {
+        void read(Consumer<R> sink) throws IOException;
+    }
+
+    private final ExecutorService parsePool;
+    private final ExecutorService validationPool;
+    private final Function<R, BulkImportRow> validator;
+    private final int batchSize;
+    private final BlockingQueue<CompletableFuture<List<BulkImportRow>>> batches;
+    private final CompletableFuture<List<BulkImportRow>> endOfInput = new CompletableFuture<>();
+    private List<R> pending;
+    private volatile boolean aborted;
+
+    ImportPipeline(ExecutorService parsePool, ExecutorService validationPool,
+                   Function<R, BulkImportRow> validator, int batchSize, int queueCapacity) {
+        this.parsePool = parsePool;
+        this.validationPool = validationPool;
+        this.validator = validator;
+        this.batchSize = batchSize;
+        this.batches = new ArrayBlockingQueue<>(queueCapacity);
+        this.pending = new ArrayList<>(batchSize);
+    }
+
+    void run(Source<R> source, Consumer<List<BulkImportRow>> persister) throws IOException {
+        Future<?> parsing = parsePool.submit(() -> {
+            try {
+                source.read(this::accept);
+                dispatch();
+            } catch (PipelineAbortedException e) {
+                // the persist stage stopped; nothing left to do
+            } finally {
+                enqueue(endOfInput);
+            }
+            return null;
+        });
+
+        try {
+            CompletableFuture<List<BulkImportRow>> next;
+            while ((next = batches.take()) != endOfInput) {
+                persister.accept(next.join());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort();
+            throw new IOException("Import interrupted", e);
+        } catch (RuntimeException e) {
+            abort();
+            throw e;
+        }
+
+        awaitParser(parsing);
+    }
+
+    private void accept(R raw) {
+        if (aborted) throw new PipelineAbortedException();
+        pending.add(raw);
+        if (pending.size() >= batchSize) {
+            dispatch();
+        }
+    }
+
+    private void dispatch() {
+        if (pending.isEmpty()) return;
+        List<R> batch = pending;
+        pending = new ArrayList<>(batchSize);
+
+        enqueue(CompletableFuture.supplyAsync(() -> {
+            List<BulkImportRow> rows = new ArrayList<>(batch.size());
+            for (R raw : batch) {
+                rows.add(validator.apply(raw));
+            }
+            return rows;
+        }, validationPool));
+    }
+
+    // blocks the parser while the queue is full, which is what keeps memory bounded
+    private void enqueue(CompletableFuture<List<BulkImportRow>> batch) {
+        try {
+            batches.put(batch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PipelineAbortedException();
+        }
+    }
+
+    // stop the parser and drain the queue so it is never left blocked on a full queue
+    private void abort() {
+        aborted = true;
+        try {
+            while (batches.take() != endOfInput) {
+                // discard
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitParser(Future<?> parsing) throws IOException {
+        try {
+            parsing.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) throw io;
+            if (cause instanceof RuntimeException re) throw re;
+            throw new IOException(cause);
+        }
+    }
+
+    private static class PipelineAbortedException extends RuntimeException {
+    }
+}
@@ -0,0 +1,85 @@
+package com.deepantechjournal.practiceweb.services;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Live counters of a running import; safe to read from other threads while the import is writing.
+public class ImportProgress {
+
+    private final AtomicLong rowsProcessed = new AtomicLong();
+    private final AtomicLong successCount = new AtomicLong();
+    private final AtomicLong updatedCount = new AtomicLong();
+    private final AtomicLong unchangedCount = new AtomicLong();
+    private final AtomicLong skippedCount = new AtomicLong();
+    private final AtomicLong errorCount = new AtomicLong();
+    private volatile long startedAt = System.nanoTime();
+    private volatile boolean cancelled;
+
+    void start() {
+        startedAt = System.nanoTime();
+    }
+
+    void recordSuccess() {
+        rowsProcessed.incrementAndGet();
+        successCount.incrementAndGet();
+    }
+
+    void recordUpdated() {
+        rowsProcessed.incrementAndGet();
+        updatedCount.incrementAndGet();
+    }
+
+    void recordUnchanged() {
+        rowsProcessed.incrementAndGet();
+        unchangedCount.incrementAndGet();
+    }
+
+    void recordSkipped() {
+        rowsProcessed.incrementAndGet();
+        skippedCount.incrementAndGet();
+    }
+
+    void recordError() {
+        rowsProcessed.incrementAndGet();
+        errorCount.incrementAndGet();
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public long getRowsProcessed() {
+        return rowsProcessed.get();
+    }
+
+    public long getSuccessCount() {
+        return successCount.get();
+    }
+
+    public long getUpdatedCount() {
+        return updatedCount.get();
+    }
+
+    public long getUnchangedCount() {
+        return unchangedCount.get();
+    }
+
+    public long getSkippedCount() {
+        return skippedCount.get();
+    }
+
+    public long getErrorCount() {
+        return errorCount.get();
+    }
+
+    public long getElapsedMs() {
+        return Math.max(1, (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    public double getRowsPerSecond() {
+        return Math.round(getRowsProcessed() * 1000.0 / getElapsedMs() * 100) / 100.0;
+    }
+}
@@ -0,0 +1,367 @@
+package com.deepantechjournal.practiceweb.services;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// Term -> postings index over product name, category and description. Postings are primitive arrays
+// sorted by document number, so a query is a few array merges rather than per-hit object allocation.
+// Updated products get a new document number; the old one is only marked dead, and the sweep drops
+// dead documents and renumbers the live ones so neither the postings nor the document table keep growing.
+// A product whose indexed text did not change (a price or stock update) is left as it is.
+class InvertedIndex {
+
+    static final int NAME = 1;
+    static final int CATEGORY = 2;
+    static final int DESCRIPTION = 4;
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MAX_TERM_LENGTH = 40;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 100;
+    private static final float PREFIX_PENALTY = 0.6f;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // all guarded by lock
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final ArrayList<UUID> products = new ArrayList<>();
+    private final Map<UUID, Integer> docByProduct = new HashMap<>();
+    private final BitSet live = new BitSet();
+    // fingerprint of the indexed text, by document number
+    private long[] fingerprints = new long[16];
+    private int deadDocs;
+
+    record Hit(UUID productId, float score) {
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) return List.of();
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty() && token.length() <= MAX_TERM_LENGTH) tokens.add(token);
+        }
+        return tokens;
+    }
+
+    // returns false when the product is already indexed with exactly this text
+    boolean put(UUID productId, String name, String categoryName, String description) {
+        long fingerprint = fingerprint(name, categoryName, description);
+        lock.readLock().lock();
+        try {
+            Integer doc = docByProduct.get(productId);
+            if (doc != null && fingerprints[doc] == fingerprint) return false;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<String, Integer> fieldsByTerm = new HashMap<>();
+        addTerms(fieldsByTerm, name, NAME);
+        addTerms(fieldsByTerm, categoryName, CATEGORY);
+        addTerms(fieldsByTerm, description, DESCRIPTION);
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+            int doc = products.size();
+            products.add(productId);
+            docByProduct.put(productId, doc);
+            live.set(doc);
+            if (doc == fingerprints.length) fingerprints = Arrays.copyOf(fingerprints, doc * 2);
+            fingerprints[doc] = fingerprint;
+            fieldsByTerm.forEach((term, fields) -> terms.computeIfAbsent(term, t -> new Postings()).add(doc, fields));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return true;
+    }
+
+    void remove(UUID productId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return docByProduct.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Every query token has to match, either exactly or (from MIN_PREFIX_LENGTH chars on) as a prefix.
+    // Score per token is idf * field weight, summed over tokens; exact terms beat prefix expansions.
+    List<Hit> search(String query, int limit) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (tokens.isEmpty()) return List.of();
+
+        lock.readLock().lock();
+        try {
+            int docCount = Math.max(1, docByProduct.size());
+            List<TokenTerms> perToken = new ArrayList<>();
+            for (String token : tokens) {
+                TokenTerms matched = match(token, docCount);
+                if (matched.total() == 0) return List.of();
+                perToken.add(matched);
+            }
+            perToken.sort(Comparator.comparingLong(TokenTerms::total));
+
+            // materialize the rarest token, then narrow it down with the others
+            Matches result = Matches.union(perToken.get(0), live);
+            for (int i = 1; i < perToken.size() && result.size > 0; i++) {
+                TokenTerms next = perToken.get(i);
+                // probing each candidate by binary search beats merging when the candidates are few
+                long probeCost = (long) result.size * next.postings().size() * 20;
+                result = probeCost < next.total()
+                        ? result.probe(next)
+                        : result.intersect(Matches.union(next, live));
+            }
+            return topHits(result, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private TokenTerms match(String token, int docCount) {
+        List<Postings> postings = new ArrayList<>();
+        List<Float> boosts = new ArrayList<>();
+
+        Postings exact = terms.get(token);
+        if (exact != null) {
+            postings.add(exact);
+            boosts.add(idf(exact, docCount));
+        }
+        if (token.length() >= MIN_PREFIX_LENGTH) {
+            int expansions = 0;
+            for (Map.Entry<String, Postings> entry : terms.subMap(token, false, token + Character.MAX_VALUE, false).entrySet()) {
+                if (++expansions > MAX_PREFIX_EXPANSIONS) break;
+                postings.add(entry.getValue());
+                boosts.add(idf(entry.getValue(), docCount) * PREFIX_PENALTY);
+            }
+        }
+        float[] boostArray = new float[boosts.size()];
+        long total = 0;
+        for (int i = 0; i < boostArray.length; i++) {
+            boostArray[i] = boosts.get(i);
+            total += postings.get(i).size;
+        }
+        return new TokenTerms(postings, boostArray, total);
+    }
+
+    private float idf(Postings postings, int docCount) {
+        return (float) Math.log(1.0 + (double) docCount / postings.size);
+    }
+
+    private List<Hit> topHits(Matches matches, int limit) {
+        PriorityQueue<Integer> top = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(i -> matches.scores[i]));
+        for (int i = 0; i < matches.size; i++) {
+            if (top.size() < limit) {
+                top.add(i);
+            } else if (matches.scores[i] > matches.scores[top.peek()]) {
+                top.poll();
+                top.add(i);
+            }
+        }
+        List<Hit> hits = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            int i = top.poll();
+            hits.add(new Hit(products.get(matches.docs[i]), matches.scores[i]));
+        }
+        Collections.reverse(hits);
+        return hits;
+    }
+
+    private void removeLocked(UUID productId) {
+        Integer doc = docByProduct.remove(productId);
+        if (doc == null) return;
+        live.clear(doc);
+        deadDocs++;
+        // sweep once dead documents make up half of the index
+        if (deadDocs > 10_000 && deadDocs > docByProduct.size()) {
+            compactLocked();
+        }
+    }
+
+    // Live documents keep their relative order, so renumbered postings stay sorted.
+    private void compactLocked() {
+        int[] renumbered = new int[products.size()];
+        int next = 0;
+        for (int doc = 0; doc < products.size(); doc++) {
+            if (!live.get(doc)) {
+                renumbered[doc] = -1;
+                continue;
+            }
+            UUID productId = products.get(doc);
+            renumbered[doc] = next;
+            products.set(next, productId);
+            fingerprints[next] = fingerprints[doc];
+            docByProduct.put(productId, next);
+            next++;
+        }
+        products.subList(next, products.size()).clear();
+        products.trimToSize();
+        fingerprints = Arrays.copyOf(fingerprints, Math.max(16, next));
+        live.clear();
+        live.set(0, next);
+        terms.values().removeIf(postings -> postings.renumber(renumbered) == 0);
+        deadDocs = 0;
+    }
+
+    private static long fingerprint(String... texts) {
+        long hash = 0xcbf29ce484222325L; // 64-bit FNV-1a
+        for (String text : texts) {
+            // null and "" hash differently, and the separator keeps ("ab", "c") apart from ("a", "bc")
+            if (text != null) {
+                for (int i = 0; i < text.length(); i++) {
+                    hash = (hash ^ text.charAt(i)) * 0x100000001b3L;
+                }
+            }
+            hash = (hash ^ (text == null ? 0x10000 : 0x10001)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static void addTerms(Map<String, Integer> fieldsByTerm, String text, int field) {
+        for (String token : tokenize(text)) {
+            fieldsByTerm.merge(token, field, (a, b) -> a | b);
+        }
+    }
+
+    private static float fieldWeight(int fields) {
+        float weight = 0;
+        if ((fields & NAME) != 0) weight += 3;
+        if ((fields & CATEGORY) != 0) weight += 2;
+        if ((fields & DESCRIPTION) != 0) weight += 1;
+        return weight;
+    }
+
+    // the terms one query token expanded to, with their boosts, before any postings are read
+    private record TokenTerms(List<Postings> postings, float[] boosts, long total) {
+    }
+
+    private static final class Postings {
+        private int[] docs = new int[2];
+        private byte[] fields = new byte[2];
+        private int size;
+
+        void add(int doc, int fieldMask) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                fields = Arrays.copyOf(fields, size * 2);
+            }
+            docs[size] = doc;
+            fields[size] = (byte) fieldMask;
+            size++;
+        }
+
+        int renumber(int[] renumbered) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (renumbered[docs[i]] >= 0) {
+                    docs[kept] = renumbered[docs[i]];
+                    fields[kept] = fields[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            docs = Arrays.copyOf(docs, Math.max(2, kept));
+            fields = Arrays.copyOf(fields, Math.max(2, kept));
+            return kept;
+        }
+    }
+
+    // Matching live documents for one token (or the intersection of several), sorted by document number.
+    private static final class Matches {
+        final int[] docs;
+        final float[] scores;
+        final int size;
+
+        private Matches(int[] docs, float[] scores, int size) {
+            this.docs = docs;
+            this.scores = scores;
+            this.size = size;
+        }
+
+        static Matches union(TokenTerms terms, BitSet live) {
+            List<Postings> postings = terms.postings();
+            int total = (int) terms.total();
+
+            // pack (doc, posting index) so one primitive sort orders everything by document
+            long[] entries = new long[total];
+            float[] weights = new float[total];
+            int n = 0;
+            for (int i = 0; i < postings.size(); i++) {
+                Postings p = postings.get(i);
+                float boost = terms.boosts()[i];
+                for (int j = 0; j < p.size; j++) {
+                    if (!live.get(p.docs[j])) continue;
+                    weights[n] = boost * fieldWeight(p.fields[j]);
+                    entries[n] = ((long) p.docs[j] << 32) | n;
+                    n++;
+                }
+            }
+            if (postings.size() > 1) Arrays.sort(entries, 0, n);
+
+            int[] docs = new int[n];
+            float[] scores = new float[n];
+            int size = 0;
+            for (int i = 0; i < n; i++) {
+                int doc = (int) (entries[i] >>> 32);
+                float weight = weights[(int) entries[i]];
+                if (size > 0 && docs[size - 1] == doc) {
+                    scores[size - 1] = Math.max(scores[size - 1], weight); // best matching term counts once
+                } else {
+                    docs[size] = doc;
+                    scores[size] = weight;
+                    size++;
+                }
+            }
+            return new Matches(docs, scores, size);
+        }
+
+        Matches probe(TokenTerms terms) {
+            int[] docs = new int[size];
+            float[] scores = new float[size];
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                float best = 0;
+                for (int t = 0; t < terms.postings().size(); t++) {
+                    Postings p = terms.postings().get(t);
+                    int at = Arrays.binarySearch(p.docs, 0, p.size, this.docs[i]);
+                    if (at >= 0) best = Math.max(best, terms.boosts()[t] * fieldWeight(p.fields[at]));
+                }
+                if (best > 0) {
+                    docs[n] = this.docs[i];
+                    scores[n] = this.scores[i] + best;
+                    n++;
+                }
+            }
+            return new Matches(docs, scores, n);
+        }
+
+        Matches intersect(Matches other) {
+            int[] docs = new int[Math.min(size, other.size)];
+            float[] scores = new float[docs.length];
+            int n = 0;
+            for (int i = 0, j = 0; i < size && j < other.size; ) {
+                if (this.docs[i] < other.docs[j]) {
+                    i++;
+                } else if (this.docs[i] > other.docs[j]) {
+                    j++;
+                } else {
+                    docs[n] = this.docs[i];
+                    scores[n] = this.scores[i] + other.scores[j];
+                    n++;
+                    i++;
+                    j++;
+                }
+            }
+            return new Matches(docs, scores, n);
+        }
+    }
+}
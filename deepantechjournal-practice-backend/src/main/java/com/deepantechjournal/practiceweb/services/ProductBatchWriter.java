@@ -0,0 +1,191 @@
+package com.deepantechjournal.practiceweb.services;
+
+import com.deepantechjournal.practiceweb.models.Category;
+import com.deepantechjournal.practiceweb.models.Product;
+import com.deepantechjournal.practiceweb.repositories.ProductRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+@Component
+public class ProductBatchWriter {
+
+    private final ProductRepository productRepository;
+    private final CategoryCache categoryCache;
+    private final ProductNameFilter nameFilter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public ProductBatchWriter(ProductRepository productRepository,
+                              CategoryCache categoryCache,
+                              ProductNameFilter nameFilter,
+                              ApplicationEventPublisher eventPublisher,
+                              NamedParameterJdbcTemplate jdbcTemplate) {
+        this.productRepository = productRepository;
+        this.categoryCache = categoryCache;
+        this.nameFilter = nameFilter;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // One transaction per chunk, whichever mode the import runs in.
+    @Transactional
+    public void write(List<BulkImportRow> rows, ImportMode mode, Set<String> seenNames) {
+        if (mode == ImportMode.UPSERT) {
+            upsert(rows, seenNames);
+        } else {
+            insert(rows, seenNames);
+        }
+    }
+
+    // Names the filter cannot rule out are confirmed with a single indexed IN lookup,
+    // then the new rows go out as a batched insert.
+    private void insert(List<BulkImportRow> rows, Set<String> seenNames) {
+        Set<String> lookupNames = new HashSet<>();
+        for (BulkImportRow row : rows) {
+            if (!row.isRejected()) lookupNames.add(row.getLookupName());
+        }
+        if (lookupNames.isEmpty()) return;
+
+        Set<String> candidates = nameFilter.mightExist(lookupNames);
+        Set<String> existing = candidates.isEmpty()
+                ? Set.of()
+                : new HashSet<>(productRepository.findExistingNames(candidates));
+        Set<String> chunkNames = new HashSet<>();
+        List<Product> products = new ArrayList<>();
+
+        for (BulkImportRow row : rows) {
+            if (row.isRejected()) continue;
+
+            String name = row.getLookupName();
+            if (existing.contains(name) || seenNames.contains(name) || chunkNames.contains(name)) {
+                row.markDuplicate();
+                continue;
+            }
+            if (row.getCategoryName() != null) {
+                row.getProduct().setCategory(categoryCache.getOrCreate(row.getCategoryName()));
+            }
+            chunkNames.add(row.getProduct().getName());
+            products.add(row.getProduct());
+            row.markSaved();
+        }
+
+        productRepository.saveAll(products);
+        productRepository.flush();
+        eventPublisher.publishEvent(ProductsChangedEvent.of(products));
+    }
+
+    // Upsert keys on the stored product name. Existing rows are read back in one IN query and only
+    // the ones whose values actually differ are sent, as a single JDBC batch of UPDATEs.
+    private void upsert(List<BulkImportRow> rows, Set<String> seenNames) {
+        Set<String> names = new HashSet<>();
+        for (BulkImportRow row : rows) {
+            if (!row.isRejected()) names.add(row.getProduct().getName());
+        }
+        if (names.isEmpty()) return;
+
+        Set<String> candidates = nameFilter.mightExist(names);
+        Map<String, List<StoredProduct>> existing = candidates.isEmpty() ? Map.of() : findStored(candidates);
+        Set<String> chunkNames = new HashSet<>();
+        List<Product> inserts = new ArrayList<>();
+        List<Product> updates = new ArrayList<>();
+        List<SqlParameterSource> updateParams = new ArrayList<>();
+
+        for (BulkImportRow row : rows) {
+            if (row.isRejected()) continue;
+
+            Product product = row.getProduct();
+            String name = product.getName();
+            if (seenNames.contains(name) || !chunkNames.add(name)) {
+                row.markDuplicate();
+                continue;
+            }
+            // a blank category cell keeps whatever category the product already has
+            Category category = row.getCategoryName() == null || row.getCategoryName().isBlank()
+                    ? null
+                    : categoryCache.getOrCreate(row.getCategoryName());
+
+            List<StoredProduct> matches = existing.get(name);
+            if (matches == null) {
+                product.setCategory(category);
+                inserts.add(product);
+                row.markSaved();
+                continue;
+            }
+
+            boolean changed = false;
+            for (StoredProduct stored : matches) {
+                UUID categoryId = category != null ? category.getId() : stored.categoryId();
+                if (stored.sameAs(product, categoryId)) continue;
+
+                changed = true;
+                updateParams.add(new MapSqlParameterSource()
+                        .addValue("id", stored.id())
+                        .addValue("price", product.getPrice())
+                        .addValue("description", product.getDescription())
+                        .addValue("stock", product.getStock())
+                        .addValue("categoryId", categoryId));
+                updates.add(Product.builder()
+                        .id(stored.id())
+                        .name(name)
+                        .price(product.getPrice())
+                        .description(product.getDescription())
+                        .stock(product.getStock())
+                        .category(category)
+                        .build());
+            }
+            if (changed) {
+                row.markUpdated();
+            } else {
+                row.markUnchanged();
+            }
+        }
+
+        if (!updateParams.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE products SET price = :price, description = :description, "
+                            + "stock = :stock, category_id = :categoryId WHERE id = :id",
+                    updateParams.toArray(new SqlParameterSource[0]));
+        }
+        productRepository.saveAll(inserts);
+        productRepository.flush();
+
+        List<Product> changedProducts = new ArrayList<>(inserts);
+        changedProducts.addAll(updates);
+        if (!changedProducts.isEmpty()) {
+            eventPublisher.publishEvent(ProductsChangedEvent.of(changedProducts));
+        }
+    }
+
+    private Map<String, List<StoredProduct>> findStored(Collection<String> names) {
+        Map<String, List<StoredProduct>> byName = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name, price, description, stock, category_id FROM products WHERE name IN (:names)",
+                Map.of("names", names),
+                rs -> {
+                    byName.computeIfAbsent(rs.getString("name"), k -> new ArrayList<>()).add(new StoredProduct(
+                            rs.getObject("id", UUID.class),
+                            rs.getBigDecimal("price"),
+                            rs.getString("description"),
+                            rs.getObject("stock", Integer.class),
+                            rs.getObject("category_id", UUID.class)));
+                });
+        return byName;
+    }
+
+    private record StoredProduct(UUID id, BigDecimal price, String description, Integer stock, UUID categoryId) {
+
+        boolean sameAs(Product product, UUID newCategoryId) {
+            boolean samePrice = price == null ? product.getPrice() == null
+                    : product.getPrice() != null && price.compareTo(product.getPrice()) == 0;
+            return samePrice
+                    && Objects.equals(description, product.getDescription())
+                    && Objects.equals(stock, product.getStock())
+                    && Objects.equals(categoryId, newCategoryId);
+        }
+    }
+}
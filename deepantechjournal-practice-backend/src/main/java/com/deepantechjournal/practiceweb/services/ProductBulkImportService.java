@@ -0,0 +1,207 @@
+package com.deepantechjournal.practiceweb.services;
+
+import com.deepantechjournal.practiceweb.dto.BulkImportResult;
+import com.deepantechjournal.practiceweb.models.Product;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+@Service
+public class ProductBulkImportService {
+
+    private final ProductBatchWriter batchWriter;
+    private final CategoryCache categoryCache;
+    private final ErrorReportStore reportStore;
+    private final int batchSize;
+    private final int parallelism;
+    private final ExecutorService parsePool;
+    private final ExecutorService validationPool;
+
+    public ProductBulkImportService(ProductBatchWriter batchWriter,
+                                    CategoryCache categoryCache,
+                                    ErrorReportStore reportStore,
+                                    @Value("${app.bulk.batch-size:500}") int batchSize,
+                                    @Value("${app.bulk.pipeline.parallelism:0}") int parallelism) {
+        this.batchWriter = batchWriter;
+        this.categoryCache = categoryCache;
+        this.reportStore = reportStore;
+        this.batchSize = Math.max(1, batchSize);
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        // one parser thread per running import; validation workers are shared by all imports
+        this.parsePool = Executors.newCachedThreadPool(new CustomizableThreadFactory("bulk-parse-"));
+        this.validationPool = Executors.newFixedThreadPool(this.parallelism,
+                new CustomizableThreadFactory("bulk-validate-"));
+    }
+
+    public BulkImportResult importCsv(InputStream in, ImportMode mode) throws IOException {
+        return importCsv(in, mode, new ImportProgress());
+    }
+
+    public BulkImportResult importCsv(InputStream in, ImportMode mode, ImportProgress progress) throws IOException {
+        Set<String> seenNames = new HashSet<>();
+
+        try (BulkImportReport report = new BulkImportReport(progress, reportStore.newReport(".csv"));
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in))) {
+            boolean cancelled = false;
+            try {
+                newPipeline(this::parseCsvRow).run(sink -> {
+                    String line;
+                    int row = 0;
+
+                    while ((line = reader.readLine()) != null) {
+                        row++;
+                        if (row == 1) continue;
+
+                        sink.accept(new CsvLine(row, line));
+                    }
+                }, chunk -> flush(chunk, mode, seenNames, report));
+            } catch (ImportCancelledException e) {
+                // rows committed before the cancel request stay imported and are still reported
+                cancelled = true;
+            }
+            return report.finish(cancelled);
+        }
+    }
+
+    public BulkImportResult importExcel(Path file, ImportMode mode) throws IOException {
+        return importExcel(file, mode, new ImportProgress());
+    }
+
+    public BulkImportResult importExcel(Path file, ImportMode mode, ImportProgress progress) throws IOException {
+        Set<String> seenNames = new HashSet<>();
+        categoryCache.warm();
+
+        try (BulkImportReport report = new BulkImportReport(progress, reportStore.newReport("-excel.csv"))) {
+            boolean cancelled = false;
+            try {
+                newPipeline(this::parseExcelRow).run(sink ->
+                        StreamingXlsxReader.readFirstSheet(file, (rowNum, cells) -> {
+                            if (rowNum == 1) return; // header
+
+                            // the reader reuses its cell list for the next row
+                            sink.accept(new SheetRow(rowNum, List.copyOf(cells)));
+                        }), chunk -> flush(chunk, mode, seenNames, report));
+            } catch (ImportCancelledException e) {
+                // rows committed before the cancel request stay imported and are still reported
+                cancelled = true;
+            }
+            return report.finish(cancelled);
+        }
+    }
+
+    private <R> ImportPipeline<R> newPipeline(Function<R, BulkImportRow> validator) {
+        return new ImportPipeline<>(parsePool, validationPool, validator, batchSize, parallelism * 2);
+    }
+
+    private BulkImportRow parseCsvRow(CsvLine csvLine) {
+        int row = csvLine.row();
+        String line = csvLine.line();
+        String errorPrefix = "Row " + row + ": " + line + " | Error: ";
+        try {
+            String[] parts = line.split(",");
+            String name = parts[0].trim();
+            BigDecimal price = new BigDecimal(parts[1].trim());
+            String description = parts[2].trim();
+            Integer stock = Integer.parseInt(parts[3].trim());
+
+            Product product = Product.builder()
+                    .name(name)
+                    .price(price)
+                    .description(description)
+                    .stock(stock)
+                    .build();
+            return BulkImportRow.valid(row, name, product, errorPrefix);
+        } catch (Exception e) {
+            return BulkImportRow.error(row, errorPrefix + e.getMessage());
+        }
+    }
+
+    private BulkImportRow parseExcelRow(SheetRow sheetRow) {
+        int rowNum = sheetRow.row();
+        List<String> cells = sheetRow.cells();
+        String errorPrefix = "Row " + rowNum + ": Error: ";
+        try {
+            String name = cell(cells, 0);
+            String sku = cell(cells, 1);
+            String variant = cell(cells, 2); // color/size
+            String categoryName = cell(cells, 3);
+            BigDecimal price = new BigDecimal(cell(cells, 4));
+            Integer stock = Integer.parseInt(cell(cells, 5));
+
+            if (name.isBlank()) {
+                return BulkImportRow.skipped(rowNum, "Row " + rowNum + ": missing product name (SKIPPED)");
+            }
+
+            Product product = Product.builder()
+                    .name(name + (variant.isBlank() ? "" : " - " + variant))
+                    .description("SKU: " + sku)
+                    .price(price)
+                    .stock(stock)
+                    .build();
+            return BulkImportRow.valid(rowNum, name, product, categoryName, errorPrefix);
+        } catch (Exception e) {
+            return BulkImportRow.error(rowNum, errorPrefix + e.getMessage());
+        }
+    }
+
+    private String cell(List<String> cells, int index) {
+        return index < cells.size() ? cells.get(index) : "";
+    }
+
+    private void flush(List<BulkImportRow> chunk, ImportMode mode, Set<String> seenNames, BulkImportReport report) {
+        if (report.getProgress().isCancelled()) throw new ImportCancelledException();
+        if (chunk.isEmpty()) return;
+
+        try {
+            batchWriter.write(chunk, mode, seenNames);
+        } catch (RuntimeException chunkFailure) {
+            // retry row by row so one bad record only fails itself, not the whole chunk
+            for (BulkImportRow row : chunk) {
+                if (row.isRejected()) continue;
+                row.getProduct().setId(null);
+                try {
+                    batchWriter.write(List.of(row), mode, seenNames);
+                } catch (RuntimeException e) {
+                    row.fail(e.getMessage());
+                }
+                if (row.isApplied()) {
+                    seenNames.add(row.getProduct().getName());
+                }
+            }
+        }
+
+        for (BulkImportRow row : chunk) {
+            report.record(row);
+            if (row.isApplied()) {
+                seenNames.add(row.getProduct().getName());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        parsePool.shutdown();
+        validationPool.shutdown();
+    }
+
+    private record CsvLine(int row, String line) {
+    }
+
+    private record SheetRow(int row, List<String> cells) {
+    }
+
+    private static class ImportCancelledException extends RuntimeException {
+    }
+}
@@ -0,0 +1,36 @@
+package com.deepantechjournal.practiceweb.services;
+
+import com.deepantechjournal.practiceweb.dto.ProductDto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+// Position after the last product of a page: its sort value and id, plus the ordering it belongs to,
+// so a token cannot be replayed against a different sort. Opaque to clients (URL-safe base64).
+record ProductCursor(ProductSort sort, boolean descending, Object value, UUID id) {
+
+    static ProductCursor after(ProductDto product, ProductSort sort, boolean descending) {
+        return new ProductCursor(sort, descending, sort.valueOf(product), product.getId());
+    }
+
+    String encode() {
+        String raw = sort.name() + "\n" + (descending ? "desc" : "asc") + "\n" + id + "\n"
+                + (value == null ? "" : "=" + sort.format(value));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ProductCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\n", 4);
+            ProductSort sort = ProductSort.valueOf(parts[0]);
+            boolean descending = "desc".equals(parts[1]);
+            UUID id = UUID.fromString(parts[2]);
+            Object value = parts[3].isEmpty() ? null : sort.parse(parts[3].substring(1));
+            return new ProductCursor(sort, descending, value, id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
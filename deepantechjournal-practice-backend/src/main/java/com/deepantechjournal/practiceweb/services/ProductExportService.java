@@ -0,0 +1,174 @@
+package com.deepantechjournal.practiceweb.services;
+
+import com.deepantechjournal.practiceweb.dto.ProductDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.util.UUID;
+
+// Exports the catalog straight from a forward-only JDBC cursor, one row at a time.
+// Columns are name, price, description, stock and category. Fields are quoted as RFC 4180 requires, which the
+// line-splitting CSV import does not parse, so an export is not meant to be re-imported as-is.
+@Service
+public class ProductExportService {
+
+    private static final String[] HEADER = {"name", "price", "description", "stock", "category"};
+    private static final String SQL = "SELECT p.name, p.price, p.description, p.stock, c.name "
+            + "FROM products p LEFT JOIN categories c ON c.id = p.category_id";
+    // same columns and order as ProductRepository.DTO_SELECT, so the stream matches the JSON listing
+    private static final String DTO_SQL = "SELECT p.id, p.name, p.description, p.price, p.stock, p.created_at, "
+            + "c.id, c.name, c.created_at FROM products p LEFT JOIN categories c ON c.id = p.category_id "
+            + "ORDER BY p.created_at, p.id";
+    private static final int XLSX_WINDOW = 100;
+    private static final int NDJSON_FLUSH_EVERY = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public ProductExportService(JdbcTemplate jdbcTemplate,
+                                ObjectMapper objectMapper,
+                                @Value("${app.bulk.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    // One ProductDto JSON object per line, in (createdAt, id) order. The first line is flushed as soon
+    // as it is read and then every NDJSON_FLUSH_EVERY rows, so clients can process while we read.
+    public void writeNdjson(OutputStream out) throws IOException {
+        // flushing is ours to decide, not once per value
+        ObjectWriter writer = objectMapper.writerFor(ProductDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null); // lines are terminated explicitly below
+        int[] rows = {0};
+
+        forEachRow(DTO_SQL, rs -> {
+            UUID categoryId = rs.getObject(7, UUID.class);
+            ProductDto product = new ProductDto(rs.getObject(1, UUID.class), rs.getString(2), rs.getString(3),
+                    rs.getBigDecimal(4), rs.getObject(5, Integer.class), rs.getObject(6, Instant.class),
+                    categoryId, rs.getString(8), rs.getObject(9, Instant.class));
+            try {
+                writer.writeValue(generator, product);
+                generator.writeRaw('\n');
+                if (++rows[0] % NDJSON_FLUSH_EVERY == 1) generator.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        generator.flush();
+    }
+
+    public void writeCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(String.join(",", HEADER));
+        writer.write("\n");
+        writer.flush(); // get the first bytes on the wire before the query even starts
+
+        forEachRow(SQL, rs -> {
+            try {
+                writer.write(csv(rs.getString(1)));
+                writer.write(',');
+                writer.write(csv(plain(rs.getBigDecimal(2))));
+                writer.write(',');
+                writer.write(csv(rs.getString(3)));
+                writer.write(',');
+                writer.write(csv(rs.getString(4)));
+                writer.write(',');
+                writer.write(csv(rs.getString(5)));
+                writer.write("\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    // SXSSF keeps only the last XLSX_WINDOW rows in memory and spills the rest to a compressed temp file.
+    // The zip container can only be written once the last row is known, so bytes start flowing at the end.
+    public void writeXlsx(OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(XLSX_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
+            int maxRowIndex = SpreadsheetVersion.EXCEL2007.getLastRowIndex();
+            Sheet[] sheet = {newSheet(workbook)};
+            int[] rowIndex = {1};
+
+            forEachRow(SQL, rs -> {
+                if (rowIndex[0] > maxRowIndex) {
+                    sheet[0] = newSheet(workbook);
+                    rowIndex[0] = 1;
+                }
+                Row row = sheet[0].createRow(rowIndex[0]++);
+                row.createCell(0).setCellValue(nullToEmpty(rs.getString(1)));
+                BigDecimal price = rs.getBigDecimal(2);
+                if (price != null) row.createCell(1).setCellValue(price.doubleValue());
+                row.createCell(2).setCellValue(nullToEmpty(rs.getString(3)));
+                int stock = rs.getInt(4);
+                if (!rs.wasNull()) row.createCell(3).setCellValue(stock);
+                row.createCell(4).setCellValue(nullToEmpty(rs.getString(5)));
+            });
+            workbook.write(out);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private Sheet newSheet(SXSSFWorkbook workbook) {
+        int number = workbook.getNumberOfSheets();
+        Sheet sheet = workbook.createSheet(number == 0 ? "Products" : "Products " + (number + 1));
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < HEADER.length; i++) {
+            header.createCell(i).setCellValue(HEADER[i]);
+        }
+        return sheet;
+    }
+
+    private void forEachRow(String sql, RowCallbackHandler handler) throws IOException {
+        try {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(fetchSize);
+                return ps;
+            }, handler);
+        } catch (UncheckedIOException e) {
+            // usually the client went away; stop reading and let the caller see the real cause
+            throw e.getCause();
+        }
+    }
+
+    private static String plain(BigDecimal value) {
+        return value == null ? null : value.toPlainString();
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static String csv(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,123 @@
+package com.deepantechjournal.practiceweb.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+
+// Sidebar facets (products per category, per price bucket, in/out of stock) for the products
+// matching a filter. One grouped query over (category, bucket, in-stock) returns at most
+// categories x buckets x 2 rows, which are folded into the three facets here. With the catalog read
+// model enabled the same tally is made from one pass over the in-memory snapshot instead.
+@Service
+public class ProductFacetService {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final CatalogReadModel readModel;
+    private final List<BigDecimal> bucketBounds;
+    private final long[] bucketCents;
+    private final String bucketExpression;
+
+    public ProductFacetService(NamedParameterJdbcTemplate jdbcTemplate,
+                               CatalogReadModel readModel,
+                               @Value("${app.products.facets.price-buckets:25,50,100,250,500,1000}") List<BigDecimal> bucketBounds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readModel = readModel;
+        this.bucketBounds = bucketBounds.stream().sorted().toList();
+        // price < bound holds exactly when cents < bound in cents rounded up
+        this.bucketCents = this.bucketBounds.stream()
+                .mapToLong(bound -> bound.setScale(CatalogSnapshot.PRICE_SCALE, RoundingMode.CEILING).unscaledValue().longValueExact())
+                .toArray();
+
+        // bucket i holds prices below bucketBounds[i]; the last one everything above; -1 is "no price"
+        StringBuilder expression = new StringBuilder("CASE WHEN p.price IS NULL THEN -1");
+        for (int i = 0; i < this.bucketBounds.size(); i++) {
+            expression.append(" WHEN p.price < ").append(this.bucketBounds.get(i).toPlainString())
+                    .append(" THEN ").append(i);
+        }
+        this.bucketExpression = expression.append(" ELSE ").append(this.bucketBounds.size()).append(" END").toString();
+    }
+
+    public Map<String, Object> facets(ProductFilter filter) {
+        Tally tally = new Tally();
+        if (readModel.isEnabled()) {
+            readModel.forEachMatch(filter, (category, priceCents, inStock) -> tally.add(
+                    category == null ? null : category.getId(), category == null ? null : category.getName(),
+                    bucketOf(priceCents), inStock ? 1 : 0, 1));
+            return tally.toResponse();
+        }
+
+        String stockExpression = "CASE WHEN p.stock > 0 THEN 1 ELSE 0 END";
+        List<String> conditions = filter.sqlConditions();
+        String sql = "SELECT p.category_id, c.name, " + bucketExpression + ", " + stockExpression + ", COUNT(*) "
+                + "FROM products p LEFT JOIN categories c ON c.id = p.category_id"
+                + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+                + " GROUP BY p.category_id, c.name, " + bucketExpression + ", " + stockExpression;
+
+        jdbcTemplate.query(sql, filter.parameters(), (RowCallbackHandler) rs -> tally.add(
+                rs.getObject(1, UUID.class), rs.getString(2), rs.getInt(3), rs.getInt(4), rs.getLong(5)));
+        return tally.toResponse();
+    }
+
+    // same buckets as bucketExpression, over the read model's prices in cents
+    private int bucketOf(long priceCents) {
+        if (priceCents == CatalogSnapshot.NO_PRICE) return -1;
+        for (int i = 0; i < bucketCents.length; i++) {
+            if (priceCents < bucketCents[i]) return i;
+        }
+        return bucketCents.length;
+    }
+
+    private class Tally {
+        private final Map<UUID, Map<String, Object>> categories = new LinkedHashMap<>();
+        private final long[] bucketCounts = new long[bucketBounds.size() + 1];
+        private final long[] stockCounts = new long[2];
+        private long noPrice;
+        private long total;
+
+        void add(UUID categoryId, String categoryName, int bucket, int inStock, long count) {
+            Map<String, Object> category = categories.computeIfAbsent(categoryId, id -> {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("id", id);
+                entry.put("name", categoryName);
+                entry.put("count", 0L);
+                return entry;
+            });
+            category.put("count", (Long) category.get("count") + count);
+            if (bucket < 0) {
+                noPrice += count;
+            } else {
+                bucketCounts[bucket] += count;
+            }
+            stockCounts[inStock] += count;
+            total += count;
+        }
+
+        Map<String, Object> toResponse() {
+            List<Map<String, Object>> categoryFacet = new ArrayList<>(categories.values());
+            categoryFacet.sort(Comparator.comparingLong((Map<String, Object> c) -> (Long) c.get("count")).reversed());
+
+            List<Map<String, Object>> priceFacet = new ArrayList<>();
+            for (int i = 0; i < bucketCounts.length; i++) {
+                Map<String, Object> bucket = new LinkedHashMap<>();
+                bucket.put("min", i == 0 ? null : bucketBounds.get(i - 1));
+                bucket.put("max", i == bucketBounds.size() ? null : bucketBounds.get(i));
+                bucket.put("count", bucketCounts[i]);
+                priceFacet.add(bucket);
+            }
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("total", total);
+            response.put("categories", categoryFacet);
+            response.put("priceBuckets", priceFacet);
+            response.put("withoutPrice", noPrice);
+            response.put("inStock", stockCounts[1]);
+            response.put("outOfStock", stockCounts[0]);
+            return response;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.deepantechjournal.practiceweb.services;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+// Storefront filters shared by the filtered listing (JPQL) and the facet query (SQL). Both use the
+// alias p for products; the conditions are shaped for the (category_id, price) and (stock) indexes.
+public record ProductFilter(List<UUID> categoryIds, BigDecimal minPrice, BigDecimal maxPrice, Boolean inStock) {
+
+    public static final ProductFilter NONE = new ProductFilter(null, null, null, null);
+
+    public ProductFilter {
+        categoryIds = categoryIds == null ? List.of() : List.copyOf(categoryIds);
+    }
+
+    List<String> jpqlConditions() {
+        return conditions("p.category.id");
+    }
+
+    List<String> sqlConditions() {
+        return conditions("p.category_id");
+    }
+
+    Map<String, Object> parameters() {
+        Map<String, Object> params = new HashMap<>();
+        if (!categoryIds.isEmpty()) params.put("categoryIds", categoryIds);
+        if (minPrice != null) params.put("minPrice", minPrice);
+        if (maxPrice != null) params.put("maxPrice", maxPrice);
+        return params;
+    }
+
+    private List<String> conditions(String categoryColumn) {
+        List<String> conditions = new ArrayList<>();
+        if (!categoryIds.isEmpty()) conditions.add(categoryColumn + " in (:categoryIds)");
+        if (minPrice != null) conditions.add("p.price >= :minPrice");
+        if (maxPrice != null) conditions.add("p.price <= :maxPrice");
+        if (Boolean.TRUE.equals(inStock)) conditions.add("p.stock > 0");
+        if (Boolean.FALSE.equals(inStock)) conditions.add("(p.stock is null or p.stock <= 0)");
+        return conditions;
+    }
+}
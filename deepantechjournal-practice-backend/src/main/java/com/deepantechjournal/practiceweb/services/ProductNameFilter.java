@@ -0,0 +1,119 @@
+package com.deepantechjournal.practiceweb.services;
+
+import com.deepantechjournal.practiceweb.models.Product;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.PreparedStatement;
+import java.util.*;
+
+// In-memory membership test for product names used by the bulk imports. A Bloom filter answers
+// "definitely new" without a query; only names it might contain are confirmed with the indexed IN lookup.
+@Service
+public class ProductNameFilter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long minExpectedInsertions;
+    private final double falsePositiveRate;
+
+    private final Object lock = new Object();
+    private volatile BloomFilter filter;
+    // guarded by lock
+    private List<String> namesAddedDuringRebuild;
+    private long capacity;
+    private long insertions;
+    private long generation;
+
+    public ProductNameFilter(JdbcTemplate jdbcTemplate,
+                             @Value("${app.products.name-filter.expected-insertions:1000000}") long minExpectedInsertions,
+                             @Value("${app.products.name-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.minExpectedInsertions = minExpectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    // Returns the subset of names that may already exist and still need a database check.
+    public Set<String> mightExist(Collection<String> names) {
+        BloomFilter current = currentFilter();
+        if (current == null) return new HashSet<>(names);
+
+        Set<String> candidates = new HashSet<>();
+        for (String name : names) {
+            if (current.mightContain(name)) candidates.add(name);
+        }
+        return candidates;
+    }
+
+    public void invalidate() {
+        synchronized (lock) {
+            filter = null;
+            generation++;
+        }
+    }
+
+    // after commit, so a rebuild that is scanning the table either sees the row or gets the name here
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsChanged(ProductsChangedEvent event) {
+        if (event.isCatalogReset()) {
+            invalidate();
+            return;
+        }
+        if (event.isStockOnly()) return;
+        synchronized (lock) {
+            BloomFilter current = filter;
+            for (Product product : event.getProducts()) {
+                if (product.getName() == null) continue;
+                if (namesAddedDuringRebuild != null) namesAddedDuringRebuild.add(product.getName());
+                if (current != null) current.put(product.getName());
+                insertions++;
+            }
+            // past its sizing the false positive rate climbs quickly, so rebuild bigger on next use
+            if (current != null && insertions > capacity) filter = null;
+        }
+    }
+
+    // null while another thread is rebuilding; callers then fall back to the database
+    private BloomFilter currentFilter() {
+        BloomFilter current = filter;
+        if (current != null) return current;
+
+        long startedGeneration;
+        synchronized (lock) {
+            if (filter != null || namesAddedDuringRebuild != null) return filter;
+            namesAddedDuringRebuild = new ArrayList<>();
+            startedGeneration = generation;
+        }
+
+        try {
+            Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Long.class);
+            long rows = count == null ? 0 : count;
+            long size = Math.max(minExpectedInsertions, rows * 2);
+            BloomFilter fresh = new BloomFilter(size, falsePositiveRate);
+
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement("SELECT name FROM products WHERE name IS NOT NULL");
+                ps.setFetchSize(1000);
+                return ps;
+            }, (RowCallbackHandler) rs -> fresh.put(rs.getString(1)));
+
+            synchronized (lock) {
+                namesAddedDuringRebuild.forEach(fresh::put);
+                namesAddedDuringRebuild = null;
+                if (generation != startedGeneration) return null;
+
+                filter = fresh;
+                capacity = size;
+                insertions = rows;
+                return fresh;
+            }
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                namesAddedDuringRebuild = null;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.deepantechjournal.practiceweb.services;
+
+import com.deepantechjournal.practiceweb.dto.ProductDto;
+import com.deepantechjournal.practiceweb.repositories.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Keyset ("seek") pagination over products. Each page continues from the last row's
+// (sort value, id) instead of an OFFSET, so page 1000 costs the same as page 1.
+@Service
+public class ProductPageService {
+
+    private final int defaultSize;
+    private final int maxSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ProductPageService(@Value("${app.products.page.default-size:50}") int defaultSize,
+                              @Value("${app.products.page.max-size:500}") int maxSize) {
+        this.defaultSize = defaultSize;
+        this.maxSize = maxSize;
+    }
+
+    public record Page(List<ProductDto> items, String nextCursor) {
+    }
+
+    public Page page(ProductSort sort, boolean descending, String cursorToken, Integer size) {
+        return page(ProductFilter.NONE, sort, descending, cursorToken, size);
+    }
+
+    // cursorToken, when given, overrides sort and direction with the ones the previous page used;
+    // the filter is not part of the cursor, so callers pass the same one for every page
+    @Transactional(readOnly = true)
+    public Page page(ProductFilter filter, ProductSort sort, boolean descending, String cursorToken, Integer size) {
+        int limit = size == null ? defaultSize : Math.max(1, Math.min(size, maxSize));
+        ProductCursor cursor = cursorToken == null || cursorToken.isBlank() ? null : ProductCursor.decode(cursorToken);
+        if (cursor != null) {
+            sort = cursor.sort();
+            descending = cursor.descending();
+        }
+
+        String key = "p." + sort.getProperty();
+        String direction = descending ? "desc" : "asc";
+        List<String> conditions = new ArrayList<>(filter.jpqlConditions());
+        if (cursor != null) {
+            conditions.add(afterCursor(key, sort, descending, cursor));
+        }
+        StringBuilder jpql = new StringBuilder(ProductRepository.DTO_SELECT);
+        if (!conditions.isEmpty()) {
+            jpql.append(" where ").append(String.join(" and ", conditions));
+        }
+        jpql.append(" order by ").append(key).append(' ').append(direction);
+        if (sort.isNullable()) jpql.append(" nulls last");
+        jpql.append(", p.id ").append(direction);
+
+        TypedQuery<ProductDto> query = entityManager.createQuery(jpql.toString(), ProductDto.class);
+        filter.parameters().forEach(query::setParameter);
+        if (cursor != null) {
+            if (cursor.value() != null) query.setParameter("value", cursor.value());
+            query.setParameter("id", cursor.id());
+        }
+        // one extra row tells us whether there is a next page without a count query
+        List<ProductDto> rows = query.setMaxResults(limit + 1).getResultList();
+
+        if (rows.size() <= limit) {
+            return new Page(rows, null);
+        }
+        List<ProductDto> items = rows.subList(0, limit);
+        return new Page(List.copyOf(items), ProductCursor.after(items.get(limit - 1), sort, descending).encode());
+    }
+
+    // The leading range condition on the key is what lets the database seek into the index;
+    // the OR only disambiguates rows sharing the cursor's key value. Nulls sort last in both directions.
+    private String afterCursor(String key, ProductSort sort, boolean descending, ProductCursor cursor) {
+        String cmp = descending ? "<" : ">";
+        if (cursor.value() == null) {
+            return "(" + key + " is null and p.id " + cmp + " :id)";
+        }
+        String seek = "(" + key + " " + cmp + "= :value and (" + key + " " + cmp + " :value or p.id " + cmp + " :id))";
+        return sort.isNullable() ? "(" + seek + " or " + key + " is null)" : seek;
+    }
+}
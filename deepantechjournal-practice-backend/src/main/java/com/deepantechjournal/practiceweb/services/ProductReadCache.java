@@ -0,0 +1,80 @@
+package com.deepantechjournal.practiceweb.services;
+
+import com.deepantechjournal.practiceweb.dto.ProductDto;
+import com.deepantechjournal.practiceweb.models.Product;
+import com.deepantechjournal.practiceweb.repositories.ProductRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+// Bounded id -> ProductDto cache in front of the by-id lookup (Caffeine: W-TinyLFU admission,
+// size and TTL eviction).
+@Service
+public class ProductReadCache {
+
+    private final ProductRepository productRepository;
+    private final Cache<UUID, ProductDto> cache;
+
+    public ProductReadCache(ProductRepository productRepository,
+                            @Value("${app.products.cache.max-size:10000}") long maxSize,
+                            @Value("${app.products.cache.ttl-seconds:600}") long ttlSeconds) {
+        this.productRepository = productRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    // Misses are not cached, so a product created later is visible on its first lookup.
+    public Optional<ProductDto> findById(UUID id) {
+        return Optional.ofNullable(cache.get(id, key -> productRepository.findDtoById(key).orElse(null)));
+    }
+
+    // Invalidated once before and once after the writing transaction commits. A load that raced the
+    // commit finishes before the second invalidation (Caffeine blocks it on the key), so a stale
+    // row never outlives the commit.
+    @EventListener
+    public void beforeCommit(ProductsChangedEvent event) {
+        invalidate(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void afterCommit(ProductsChangedEvent event) {
+        invalidate(event);
+    }
+
+    private void invalidate(ProductsChangedEvent event) {
+        if (event.isCatalogReset()) {
+            cache.invalidateAll();
+            return;
+        }
+        for (Product product : event.getProducts()) {
+            if (product.getId() != null) cache.invalidate(product.getId());
+        }
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("size", cache.estimatedSize());
+        response.put("hitCount", stats.hitCount());
+        response.put("missCount", stats.missCount());
+        response.put("hitRate", stats.hitRate());
+        response.put("evictionCount", stats.evictionCount());
+        response.put("loadSuccessCount", stats.loadSuccessCount());
+        response.put("loadFailureCount", stats.loadFailureCount());
+        response.put("averageLoadPenaltyMs", stats.averageLoadPenalty() / 1_000_000.0);
+        return response;
+    }
+}
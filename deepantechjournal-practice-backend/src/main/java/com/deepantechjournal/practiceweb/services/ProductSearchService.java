@@ -0,0 +1,141 @@
+package com.deepantechjournal.practiceweb.services;
+
+import com.deepantechjournal.practiceweb.dto.ProductDto;
+import com.deepantechjournal.practiceweb.models.Product;
+import com.deepantechjournal.practiceweb.repositories.ProductRepository;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.PreparedStatement;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Full-text product search over an in-process inverted index. The index is built from one table scan
+// on first use and then kept current from ProductsChangedEvent, re-reading only the changed rows.
+@Service
+public class ProductSearchService {
+
+    private static final int REINDEX_BATCH = 1000;
+    private static final String INDEX_SELECT = "SELECT p.id, p.name, c.name, p.description "
+            + "FROM products p LEFT JOIN categories c ON c.id = p.category_id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ProductRepository productRepository;
+
+    private final Object buildLock = new Object();
+    private final Object updateLock = new Object();
+    private volatile InvertedIndex index;
+    // guarded by updateLock
+    private Set<UUID> changedDuringBuild;
+    private long generation;
+
+    public ProductSearchService(NamedParameterJdbcTemplate jdbcTemplate,
+                                ProductRepository productRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.productRepository = productRepository;
+    }
+
+    // Best matches first; the products themselves come from one IN query after ranking.
+    public List<ProductDto> search(String query, int limit) {
+        List<InvertedIndex.Hit> hits = currentIndex().search(query, limit);
+        if (hits.isEmpty()) return List.of();
+
+        Map<UUID, ProductDto> byId = productRepository
+                .findDtosByIds(hits.stream().map(InvertedIndex.Hit::productId).toList())
+                .stream()
+                .collect(Collectors.toMap(ProductDto::getId, Function.identity()));
+        List<ProductDto> results = new ArrayList<>(hits.size());
+        for (InvertedIndex.Hit hit : hits) {
+            ProductDto product = byId.get(hit.productId());
+            if (product != null) results.add(product);
+        }
+        return results;
+    }
+
+    // after commit, so a build that is scanning the table either sees the row or replays it here
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsChanged(ProductsChangedEvent event) {
+        if (event.isCatalogReset()) {
+            synchronized (updateLock) {
+                index = null;
+                generation++;
+            }
+            return;
+        }
+        if (event.isStockOnly()) return;
+
+        Set<UUID> ids = new HashSet<>();
+        for (Product product : event.getProducts()) {
+            if (product.getId() != null) ids.add(product.getId());
+        }
+        if (ids.isEmpty()) return;
+
+        // serialized so two updates of the same product cannot be applied in the wrong order
+        synchronized (updateLock) {
+            if (changedDuringBuild != null) changedDuringBuild.addAll(ids);
+            InvertedIndex current = index;
+            if (current != null) reindex(current, ids);
+        }
+    }
+
+    private InvertedIndex currentIndex() {
+        InvertedIndex current = index;
+        if (current != null) return current;
+
+        synchronized (buildLock) {
+            if (index != null) return index;
+
+            long startedGeneration;
+            synchronized (updateLock) {
+                changedDuringBuild = new HashSet<>();
+                startedGeneration = generation;
+            }
+
+            InvertedIndex fresh = new InvertedIndex();
+            try {
+                jdbcTemplate.getJdbcTemplate().query(con -> {
+                    PreparedStatement ps = con.prepareStatement(INDEX_SELECT);
+                    ps.setFetchSize(1000);
+                    return ps;
+                }, (RowCallbackHandler) rs -> fresh.put(rs.getObject(1, UUID.class),
+                        rs.getString(2), rs.getString(3), rs.getString(4)));
+            } catch (RuntimeException e) {
+                synchronized (updateLock) {
+                    changedDuringBuild = null;
+                }
+                throw e;
+            }
+
+            synchronized (updateLock) {
+                Set<UUID> changed = changedDuringBuild;
+                changedDuringBuild = null;
+                if (!changed.isEmpty()) reindex(fresh, changed);
+                // a catalog reset during the scan makes this build stale; it still answers the caller
+                if (generation == startedGeneration) index = fresh;
+            }
+            System.out.println("Product search index built with " + fresh.size() + " products");
+            return fresh;
+        }
+    }
+
+    // Products that no longer exist simply drop out of the index; rows whose name, category and
+    // description are unchanged (price or stock updates) are left in place by InvertedIndex.put.
+    private void reindex(InvertedIndex target, Set<UUID> ids) {
+        Set<UUID> found = new HashSet<>();
+        List<UUID> pending = new ArrayList<>(ids);
+        for (int from = 0; from < pending.size(); from += REINDEX_BATCH) {
+            List<UUID> batch = pending.subList(from, Math.min(from + REINDEX_BATCH, pending.size()));
+            jdbcTemplate.query(INDEX_SELECT + " WHERE p.id IN (:ids)", Map.of("ids", batch), (RowCallbackHandler) rs -> {
+                UUID id = rs.getObject(1, UUID.class);
+                found.add(id);
+                target.put(id, rs.getString(2), rs.getString(3), rs.getString(4));
+            });
+        }
+        for (UUID id : ids) {
+            if (!found.contains(id)) target.remove(id);
+        }
+    }
+}
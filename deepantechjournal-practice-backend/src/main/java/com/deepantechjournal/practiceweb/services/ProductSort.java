@@ -0,0 +1,61 @@
+package com.deepantechjournal.practiceweb.services;
+
+import com.deepantechjournal.practiceweb.dto.ProductDto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+
+// Sort keys the keyset pager accepts. Every one is paired with id as a tie-breaker,
+// and each has an index starting with the key so the next page is a range scan.
+public enum ProductSort {
+    CREATED_AT("createdAt", false),
+    NAME("name", true),
+    PRICE("price", true);
+
+    private final String property;
+    private final boolean nullable;
+
+    ProductSort(String property, boolean nullable) {
+        this.property = property;
+        this.nullable = nullable;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public boolean isNullable() {
+        return nullable;
+    }
+
+    public static Optional<ProductSort> fromProperty(String property) {
+        for (ProductSort sort : values()) {
+            if (sort.property.equalsIgnoreCase(property)) return Optional.of(sort);
+        }
+        return Optional.empty();
+    }
+
+    Object valueOf(ProductDto product) {
+        return switch (this) {
+            case CREATED_AT -> product.getCreatedAt();
+            case NAME -> product.getName();
+            case PRICE -> product.getPrice();
+        };
+    }
+
+    String format(Object value) {
+        return switch (this) {
+            case PRICE -> ((BigDecimal) value).toPlainString();
+            default -> value.toString();
+        };
+    }
+
+    Object parse(String value) {
+        return switch (this) {
+            case CREATED_AT -> Instant.parse(value);
+            case NAME -> value;
+            case PRICE -> new BigDecimal(value);
+        };
+    }
+}
@@ -0,0 +1,36 @@
+package com.deepantechjournal.practiceweb.services;
+
+import com.deepantechjournal.practiceweb.models.Product;
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+// Published whenever products are written. catalogReset means the change could not be tracked
+// row by row (e.g. raw SQL) and anything derived from the catalog has to be rebuilt.
+@Getter
+public class ProductsChangedEvent {
+
+    private final List<Product> products;
+    private final boolean catalogReset;
+    private final boolean stockOnly;
+
+    private ProductsChangedEvent(List<Product> products, boolean catalogReset, boolean stockOnly) {
+        this.products = products;
+        this.catalogReset = catalogReset;
+        this.stockOnly = stockOnly;
+    }
+
+    public static ProductsChangedEvent of(Collection<Product> products) {
+        return new ProductsChangedEvent(List.copyOf(products), false, false);
+    }
+
+    public static ProductsChangedEvent stockChanged(UUID productId) {
+        return new ProductsChangedEvent(List.of(Product.builder().id(productId).build()), false, true);
+    }
+
+    public static ProductsChangedEvent catalogReset() {
+        return new ProductsChangedEvent(List.of(), true, false);
+    }
+}
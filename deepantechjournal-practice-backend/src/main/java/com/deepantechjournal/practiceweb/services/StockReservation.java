@@ -0,0 +1,8 @@
+package com.deepantechjournal.practiceweb.services;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Stock held for a buyer until it is confirmed (sold), released, or expires back into stock.
+public record StockReservation(UUID id, UUID productId, int quantity, String owner, Instant expiresAt) {
+}
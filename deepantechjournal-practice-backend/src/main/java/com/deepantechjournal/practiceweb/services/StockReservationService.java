@@ -0,0 +1,211 @@
+package com.deepantechjournal.practiceweb.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Stock reservations for flash sales. The database stays the source of truth: a reservation is a
+// single conditional UPDATE (stock = stock - n WHERE stock >= n), so concurrent buyers can never
+// drive stock below zero. Buyers of the same product queue on an in-process lock stripe instead of
+// on the database row lock, and once a product is sold out further attempts are turned away
+// without a query until stock comes back. Reservations live in the stock_reservations table, written
+// in the same transaction as the stock they hold, so a restart cannot strand reserved stock: expiry
+// runs from the table.
+@Service
+public class StockReservationService {
+
+    private static final int STRIPES = 64;
+    private static final String RESERVE_SQL = "UPDATE products SET stock = stock - ? WHERE id = ? AND stock >= ?";
+    private static final String RELEASE_SQL = "UPDATE products SET stock = stock + ? WHERE id = ?";
+    private static final String STOCK_SQL = "SELECT stock FROM products WHERE id = ?";
+    private static final String INSERT_SQL = "INSERT INTO stock_reservations (id, product_id, quantity, owner, expires_at) "
+            + "VALUES (?, ?, ?, ?, ?)";
+    private static final String SELECT_SQL = "SELECT id, product_id, quantity, owner, expires_at FROM stock_reservations";
+    private static final String DELETE_SQL = "DELETE FROM stock_reservations WHERE id = ?";
+    private static final int EXPIRY_BATCH = 500;
+    private static final RowMapper<StockReservation> ROW_MAPPER = (rs, rowNum) -> new StockReservation(
+            rs.getObject(1, UUID.class), rs.getObject(2, UUID.class), rs.getInt(3), rs.getString(4),
+            rs.getObject(5, Instant.class));
+
+    public enum Status { RESERVED, INSUFFICIENT_STOCK, NOT_FOUND, BUSY }
+
+    public record Outcome(Status status, StockReservation reservation, int available) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration reservationTtl;
+    private final long lockWaitMs;
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final Set<UUID> soldOut = ConcurrentHashMap.newKeySet();
+
+    public StockReservationService(JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   ApplicationEventPublisher eventPublisher,
+                                   @Value("${app.products.stock.reservation-ttl-seconds:600}") long reservationTtlSeconds,
+                                   @Value("${app.products.stock.lock-wait-ms:2000}") long lockWaitMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.reservationTtl = Duration.ofSeconds(reservationTtlSeconds);
+        this.lockWaitMs = lockWaitMs;
+        for (int i = 0; i < STRIPES; i++) {
+            // fair, so a hot product serves its buyers in arrival order
+            stripes[i] = new ReentrantLock(true);
+        }
+    }
+
+    public Outcome reserve(UUID productId, int quantity, String owner) throws InterruptedException {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        if (soldOut.contains(productId)) {
+            return new Outcome(Status.INSUFFICIENT_STOCK, null, 0);
+        }
+
+        ReentrantLock lock = stripe(productId);
+        if (!lock.tryLock(lockWaitMs, TimeUnit.MILLISECONDS)) {
+            return new Outcome(Status.BUSY, null, 0);
+        }
+        StockReservation reservation = new StockReservation(UUID.randomUUID(), productId, quantity, owner,
+                Instant.now().plus(reservationTtl));
+        int remaining;
+        try {
+            Boolean reserved = transaction.execute(status -> {
+                if (jdbcTemplate.update(RESERVE_SQL, quantity, productId, quantity) == 0) return false;
+                jdbcTemplate.update(INSERT_SQL, reservation.id(), productId, quantity, owner, reservation.expiresAt());
+                return true;
+            });
+            Optional<Integer> stock = currentStock(productId);
+            if (stock.isEmpty()) {
+                return new Outcome(Status.NOT_FOUND, null, 0);
+            }
+            remaining = stock.get();
+            if (!Boolean.TRUE.equals(reserved)) {
+                if (remaining <= 0) soldOut.add(productId);
+                return new Outcome(Status.INSUFFICIENT_STOCK, null, Math.max(remaining, 0));
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        eventPublisher.publishEvent(ProductsChangedEvent.stockChanged(productId));
+        return new Outcome(Status.RESERVED, reservation, remaining);
+    }
+
+    // Puts the reserved stock back. Only the buyer who reserved it may release it.
+    public Optional<StockReservation> release(UUID reservationId, String owner) {
+        return find(reservationId, owner).filter(this::restore);
+    }
+
+    // The sale went through: the stock stays taken and the reservation is forgotten.
+    public Optional<StockReservation> confirm(UUID reservationId, String owner) {
+        // the delete decides the race between the buyer, a second request and the expiry sweep
+        return find(reservationId, owner).filter(reservation -> jdbcTemplate.update(DELETE_SQL, reservationId) == 1);
+    }
+
+    // Also picks up reservations left behind by a previous run.
+    @Scheduled(fixedDelayString = "${app.products.stock.expiry-interval-ms:30000}")
+    public void releaseExpired() {
+        int released = 0;
+        List<StockReservation> expired;
+        do {
+            expired = jdbcTemplate.query(SELECT_SQL + " WHERE expires_at < ? ORDER BY expires_at LIMIT ?",
+                    ROW_MAPPER, Instant.now(), EXPIRY_BATCH);
+            for (StockReservation reservation : expired) {
+                if (restore(reservation)) released++;
+            }
+        } while (expired.size() == EXPIRY_BATCH);
+        if (released > 0) {
+            System.out.println("Released " + released + " expired stock reservations");
+        }
+    }
+
+    // Stock may have been replenished by an import or an edit. Cleared under the product's stripe, so
+    // a reserve() that saw the old stock cannot mark the product sold out again afterwards.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsChanged(ProductsChangedEvent event) {
+        if (event.isCatalogReset()) {
+            for (int i = 0; i < STRIPES; i++) {
+                int stripe = i;
+                withStripe(stripes[i], () -> soldOut.removeIf(id -> stripeIndex(id) == stripe));
+            }
+            return;
+        }
+        if (event.isStockOnly()) return;
+        event.getProducts().forEach(product -> {
+            UUID id = product.getId();
+            if (id != null && soldOut.contains(id)) withStripe(stripe(id), () -> soldOut.remove(id));
+        });
+    }
+
+    private Optional<StockReservation> find(UUID reservationId, String owner) {
+        return jdbcTemplate.query(SELECT_SQL + " WHERE id = ? AND owner = ?", ROW_MAPPER, reservationId, owner)
+                .stream().findFirst();
+    }
+
+    // Deletes the reservation and puts its stock back in one transaction; false when someone else
+    // (the buyer, a second request or the expiry sweep) got to it first.
+    private boolean restore(StockReservation reservation) {
+        ReentrantLock lock = stripe(reservation.productId());
+        lock.lock();
+        try {
+            Boolean restored = transaction.execute(status -> {
+                if (jdbcTemplate.update(DELETE_SQL, reservation.id()) == 0) return false;
+                jdbcTemplate.update(RELEASE_SQL, reservation.quantity(), reservation.productId());
+                return true;
+            });
+            if (!Boolean.TRUE.equals(restored)) return false;
+            soldOut.remove(reservation.productId());
+        } finally {
+            lock.unlock();
+        }
+        eventPublisher.publishEvent(ProductsChangedEvent.stockChanged(reservation.productId()));
+        return true;
+    }
+
+    private static void withStripe(ReentrantLock lock, Runnable action) {
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Optional<Integer> currentStock(UUID productId) {
+        try {
+            Integer stock = jdbcTemplate.queryForObject(STOCK_SQL, Integer.class, productId);
+            return Optional.of(stock == null ? 0 : stock);
+        } catch (EmptyResultDataAccessException e) {
+            return Optional.empty();
+        }
+    }
+
+    private ReentrantLock stripe(UUID productId) {
+        return stripes[stripeIndex(productId)];
+    }
+
+    private static int stripeIndex(UUID productId) {
+        return Math.floorMod(productId.hashCode(), STRIPES);
+    }
+}
@@ -0,0 +1,200 @@
+package com.deepantechjournal.practiceweb.services;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.ss.usermodel.RichTextString;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+// Shared strings table of an .xlsx kept in temp files instead of the heap: the strings go to one file
+// and their start offsets to another, so a lookup is two positioned reads and memory stays the same
+// however many unique strings the workbook has. A small direct-mapped cache absorbs repeated values
+// such as category names.
+final class TempFileSharedStrings implements SharedStrings, Closeable {
+
+    private static final int CACHE_SIZE = 1024;
+
+    private final Path dataFile;
+    private final Path offsetFile;
+    private final FileChannel data;
+    private final FileChannel offsets;
+    private final int count;
+    private final int uniqueCount;
+    private final String[] cache = new String[CACHE_SIZE];
+    private final int[] cachedIndex = new int[CACHE_SIZE];
+    private final ByteBuffer offsetBuffer = ByteBuffer.allocate(16);
+
+    private TempFileSharedStrings(Path dataFile, Path offsetFile, int count, int uniqueCount) throws IOException {
+        this.dataFile = dataFile;
+        this.offsetFile = offsetFile;
+        this.data = FileChannel.open(dataFile, StandardOpenOption.READ);
+        this.offsets = FileChannel.open(offsetFile, StandardOpenOption.READ);
+        this.count = count;
+        this.uniqueCount = uniqueCount;
+        Arrays.fill(cachedIndex, -1);
+    }
+
+    static TempFileSharedStrings load(OPCPackage pkg) throws IOException, SAXException, ParserConfigurationException {
+        Path dataFile = Files.createTempFile("xlsx-strings-", ".bin");
+        Path offsetFile = Files.createTempFile("xlsx-strings-", ".idx");
+        try {
+            Spooler spooler;
+            try (DataOutputStream dataOut = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(dataFile)));
+                 DataOutputStream offsetOut = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(offsetFile)))) {
+                spooler = new Spooler(dataOut, offsetOut);
+                List<PackagePart> parts = pkg.getPartsByContentType(XSSFRelation.SHARED_STRINGS.getContentType());
+                if (!parts.isEmpty()) {
+                    try (InputStream in = parts.get(0).getInputStream()) {
+                        XMLReader parser = XMLHelper.newXMLReader();
+                        parser.setContentHandler(spooler);
+                        parser.parse(new InputSource(in));
+                    }
+                }
+                spooler.finish();
+            }
+            return new TempFileSharedStrings(dataFile, offsetFile, spooler.count, spooler.written);
+        } catch (IOException | SAXException | ParserConfigurationException | RuntimeException e) {
+            Files.deleteIfExists(dataFile);
+            Files.deleteIfExists(offsetFile);
+            throw e;
+        }
+    }
+
+    @Override
+    public RichTextString getItemAt(int idx) {
+        int slot = idx & (CACHE_SIZE - 1);
+        if (cachedIndex[slot] == idx) {
+            return new XSSFRichTextString(cache[slot]);
+        }
+        if (idx < 0 || idx >= uniqueCount) {
+            throw new IllegalArgumentException("Shared string index " + idx + " out of range");
+        }
+        try {
+            offsetBuffer.clear();
+            readFully(offsets, offsetBuffer, (long) idx * Long.BYTES);
+            long start = offsetBuffer.getLong(0);
+            long end = offsetBuffer.getLong(Long.BYTES);
+            ByteBuffer bytes = ByteBuffer.allocate((int) (end - start));
+            readFully(data, bytes, start);
+            String value = new String(bytes.array(), StandardCharsets.UTF_8);
+            cache[slot] = value;
+            cachedIndex[slot] = idx;
+            return new XSSFRichTextString(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read shared string " + idx, e);
+        }
+    }
+
+    @Override
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public int getUniqueCount() {
+        return uniqueCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            data.close();
+            offsets.close();
+        } finally {
+            Files.deleteIfExists(dataFile);
+            Files.deleteIfExists(offsetFile);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) throw new EOFException();
+        }
+    }
+
+    // Writes each <si> as its plain text (the <t> runs, phonetic <rPh> hints left out), the way
+    // ReadOnlySharedStringsTable reads them. The offset file ends with the end of the last string.
+    private static final class Spooler extends DefaultHandler {
+
+        private final DataOutputStream dataOut;
+        private final DataOutputStream offsetOut;
+        private final StringBuilder text = new StringBuilder();
+        private long position;
+        private int written;
+        private int count;
+        private boolean inText;
+        private boolean inPhonetic;
+
+        Spooler(DataOutputStream dataOut, DataOutputStream offsetOut) {
+            this.dataOut = dataOut;
+            this.offsetOut = offsetOut;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "sst" -> {
+                    String total = attributes.getValue("count");
+                    if (total != null) count = Integer.parseInt(total);
+                }
+                case "si" -> text.setLength(0);
+                case "rPh" -> inPhonetic = true;
+                case "t" -> inText = !inPhonetic;
+                default -> {
+                }
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            switch (localName) {
+                case "si" -> write(text.toString());
+                case "rPh" -> inPhonetic = false;
+                case "t" -> inText = false;
+                default -> {
+                }
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inText) text.append(ch, start, length);
+        }
+
+        private void write(String value) throws SAXException {
+            try {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                offsetOut.writeLong(position);
+                dataOut.write(bytes);
+                position += bytes.length;
+                written++;
+            } catch (IOException e) {
+                throw new SAXException(e);
+            }
+        }
+
+        void finish() throws IOException {
+            offsetOut.writeLong(position);
+            if (count < written) count = written;
+        }
+    }
+}
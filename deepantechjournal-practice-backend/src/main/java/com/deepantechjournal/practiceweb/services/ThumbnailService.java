@@ -0,0 +1,110 @@
+package com.deepantechjournal.practiceweb.services;
+
+import com.deepantechjournal.practiceweb.models.ThumbnailStatus;
+import jakarta.annotation.PreDestroy;
+import net.coobird.thumbnailator.Thumbnails;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+// Generates product image thumbnails off the request thread. Decoding a large camera image takes
+// far longer than receiving it, so uploads only store the original and queue the thumbnail here;
+// the image is served at full size until its thumbnail is READY (see ImageStorageService).
+@Service
+public class ThumbnailService {
+
+    private final int width;
+    private final int height;
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalQueuedNanos = new LongAdder();
+    private final LongAdder totalProcessingNanos = new LongAdder();
+    private final AtomicLong maxProcessingNanos = new AtomicLong();
+
+    public ThumbnailService(@Value("${app.images.thumbnails.pool-size:0}") int poolSize,
+                            @Value("${app.images.thumbnails.queue-capacity:500}") int queueCapacity,
+                            @Value("${app.images.thumbnails.width:400}") int width,
+                            @Value("${app.images.thumbnails.height:400}") int height) {
+        this.width = width;
+        this.height = height;
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        // decoding is CPU bound, so one thread per core; the bounded queue makes a burst wait here
+        // (or be turned away) instead of growing the heap with queued images
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("thumbnail-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Uploads check this before storing anything, so a full queue is answered with a retry.
+    public boolean hasCapacity() {
+        return executor.getQueue().remainingCapacity() > 0;
+    }
+
+    // Queues a thumbnail of an already stored image; onDone gets READY or FAILED from the worker.
+    // Returns false when the queue filled up in the meantime.
+    public boolean submit(Path original, Path thumbnail, Consumer<ThumbnailStatus> onDone) {
+        long queuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> onDone.accept(generate(original, thumbnail, queuedAt)));
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            System.out.println("Thumbnail queue full, " + original.getFileName() + " keeps its original");
+            return false;
+        }
+    }
+
+    private ThumbnailStatus generate(Path original, Path thumbnail, long queuedAt) {
+        long started = System.nanoTime();
+        totalQueuedNanos.add(started - queuedAt);
+        try {
+            Thumbnails.of(original.toFile())
+                    .size(width, height)
+                    .keepAspectRatio(true)
+                    .toFile(thumbnail.toFile());
+            completed.increment();
+            return ThumbnailStatus.READY;
+        } catch (Exception e) {
+            System.out.println("Thumbnail for " + original.getFileName() + " failed: " + e.getMessage());
+            failed.increment();
+            return ThumbnailStatus.FAILED;
+        } finally {
+            long elapsed = System.nanoTime() - started;
+            totalProcessingNanos.add(elapsed);
+            maxProcessingNanos.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long done = completed.sum() + failed.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("poolSize", executor.getMaximumPoolSize());
+        stats.put("activeCount", executor.getActiveCount());
+        stats.put("queueDepth", executor.getQueue().size());
+        stats.put("queueRemainingCapacity", executor.getQueue().remainingCapacity());
+        stats.put("completedCount", completed.sum());
+        stats.put("failedCount", failed.sum());
+        stats.put("rejectedCount", rejected.sum());
+        stats.put("averageQueueWaitMs", done == 0 ? 0.0 : totalQueuedNanos.sum() / done / 1_000_000.0);
+        stats.put("averageProcessingMs", done == 0 ? 0.0 : totalProcessingNanos.sum() / done / 1_000_000.0);
+        stats.put("maxProcessingMs", maxProcessingNanos.get() / 1_000_000.0);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
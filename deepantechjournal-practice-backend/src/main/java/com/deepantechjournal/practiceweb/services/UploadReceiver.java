@@ -0,0 +1,68 @@
+package com.deepantechjournal.practiceweb.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Copies an upload body to its destination through one fixed-size buffer, typing it from its first
+// bytes and counting as it goes: a file of the wrong type is refused after the first read and an
+// oversized one the moment it crosses the limit, instead of after it has been stored. The SHA-256
+// of the content is computed on the way through.
+public final class UploadReceiver {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public record Received(FileSignature type, long size, String sha256) {
+    }
+
+    private UploadReceiver() {
+    }
+
+    // out may be null to only inspect the body; allowed null accepts any type, unknown ones included
+    public static Received receive(InputStream in, OutputStream out, long maxBytes,
+                                   Set<FileSignature> allowed) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int filled = 0;
+        while (filled < FileSignature.HEADER_LENGTH) {
+            int read = in.read(buffer, filled, buffer.length - filled);
+            if (read < 0) break;
+            filled += read;
+        }
+
+        Optional<FileSignature> type = FileSignature.detect(buffer, filled);
+        if (allowed != null && (type.isEmpty() || !allowed.contains(type.get()))) {
+            throw new UploadRejectedException(UploadRejectedException.Reason.UNSUPPORTED_TYPE,
+                    "Unsupported file type, expected one of: " + allowed.stream()
+                            .map(FileSignature::getContentType).collect(Collectors.joining(", ")));
+        }
+
+        MessageDigest digest = sha256();
+        long size = 0;
+        int count = filled;
+        while (count >= 0) {
+            size += count;
+            if (size > maxBytes) {
+                throw new UploadRejectedException(UploadRejectedException.Reason.TOO_LARGE,
+                        "File is larger than " + maxBytes + " bytes");
+            }
+            digest.update(buffer, 0, count);
+            if (out != null) out.write(buffer, 0, count);
+            count = in.read(buffer);
+        }
+        return new Received(type.orElse(null), size, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
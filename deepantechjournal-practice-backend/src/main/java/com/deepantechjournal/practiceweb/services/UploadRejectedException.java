@@ -0,0 +1,18 @@
+package com.deepantechjournal.practiceweb.services;
+
+// Thrown while an upload is being received, as soon as it is known to be unacceptable.
+public class UploadRejectedException extends RuntimeException {
+
+    public enum Reason { TOO_LARGE, UNSUPPORTED_TYPE }
+
+    private final Reason reason;
+
+    public UploadRejectedException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,110 @@
+package com.deepantechjournal.practiceweb.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Writes a file to the response with single byte-range support. On Tomcat the body is handed to the
+// connector's sendfile support so the bytes go from the page cache to the socket without passing
+// through the JVM; elsewhere it falls back to FileChannel.transferTo.
+// Callers set their own headers (Content-Disposition, Cache-Control, ETag...) before calling send,
+// and handle If-None-Match / If-Modified-Since themselves; If-Range is checked here.
+public final class FileSender {
+
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private FileSender() {
+    }
+
+    public static void send(HttpServletRequest request, HttpServletResponse response,
+                            Path file, String contentType) throws IOException {
+        send(request, response, file, contentType, null);
+    }
+
+    // etag is the validator the caller sent with the response; a Range whose If-Range no longer
+    // matches it (or the file's modification date) gets the whole file instead.
+    public static void send(HttpServletRequest request, HttpServletResponse response,
+                            Path file, String contentType, String etag) throws IOException {
+        long length = Files.size(file);
+        long start = 0;
+        long count = length;
+
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        HttpRange range = ifRangeMatches(request, file, etag) ? singleRange(request.getHeader(HttpHeaders.RANGE)) : null;
+        if (range != null) {
+            if (length == 0 || range.getRangeStart(length) >= length) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+            start = range.getRangeStart(length);
+            long end = range.getRangeEnd(length);
+            count = end - start + 1;
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count == 0) return;
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) break;
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    private static boolean ifRangeMatches(HttpServletRequest request, Path file, String etag) throws IOException {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) return true;
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // strong comparison: a weak validator never matches
+            return etag != null && !etag.startsWith("W/") && etag.equals(ifRange);
+        }
+        try {
+            long lastModified = Files.getLastModifiedTime(file).toMillis() / 1000 * 1000;
+            return request.getDateHeader(HttpHeaders.IF_RANGE) == lastModified;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // Multi-range and malformed headers are answered with the full body, which RFC 9110 allows.
+    private static HttpRange singleRange(String header) {
+        if (header == null) return null;
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
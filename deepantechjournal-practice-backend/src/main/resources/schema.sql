@@ -3,3 +3,13 @@ CREATE TABLE IF NOT EXISTS CATEGORIES (
                                           name VARCHAR(255),
     createdAt TIMESTAMP
     );
+
+-- stock held by StockReservationService until it is confirmed, released or expires
+CREATE TABLE IF NOT EXISTS stock_reservations (
+    id UUID PRIMARY KEY,
+    product_id UUID NOT NULL,
+    quantity INT NOT NULL,
+    owner VARCHAR(255) NOT NULL,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL
+    );
+CREATE INDEX IF NOT EXISTS idx_stock_reservations_expires_at ON stock_reservations (expires_at);
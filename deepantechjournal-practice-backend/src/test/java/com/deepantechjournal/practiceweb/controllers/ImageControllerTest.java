@@ -0,0 +1,167 @@
+package com.deepantechjournal.practiceweb.controllers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+
+// Range, If-Range and HEAD handling of GET /images/<file>; the body goes through FileSender's
+// transferTo fallback here, since MockMvc has no sendfile support.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ImageControllerTest {
+
+    private static final int IMAGE_BYTES = 4096;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Value("${app.storage.product-images-dir}")
+    private String productImagesDir;
+
+    private String hash;
+    private byte[] content;
+
+    @BeforeEach
+    void storeImage() throws Exception {
+        content = new byte[IMAGE_BYTES];
+        new Random(7).nextBytes(content);
+        hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        Path dir = Paths.get(productImagesDir);
+        Files.createDirectories(dir);
+        Files.write(dir.resolve(hash + ".jpg"), content);
+    }
+
+    @Test
+    void fullGetCarriesTheContentHashAsETag() throws Exception {
+        MockHttpServletResponse response = fetch(null, null);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"" + hash + "\"");
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void rangeGetsPartialContent() throws Exception {
+        MockHttpServletResponse response = fetch("bytes=100-199", null);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 100-199/" + IMAGE_BYTES);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_LENGTH)).isEqualTo("100");
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 100, 200));
+    }
+
+    @Test
+    void suffixRangeGetsTheTail() throws Exception {
+        MockHttpServletResponse response = fetch("bytes=-10", null);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, IMAGE_BYTES - 10, IMAGE_BYTES));
+    }
+
+    @Test
+    void rangePastTheEndIsNotSatisfiable() throws Exception {
+        MockHttpServletResponse response = fetch("bytes=" + IMAGE_BYTES + "-", null);
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */" + IMAGE_BYTES);
+    }
+
+    @Test
+    void multipleRangesGetTheWholeFile() throws Exception {
+        MockHttpServletResponse response = fetch("bytes=0-9,20-29", null);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void ifRangeWithTheCurrentETagGetsTheRange() throws Exception {
+        MockHttpServletResponse response = fetch("bytes=0-99", "\"" + hash + "\"");
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOf(content, 100));
+    }
+
+    @Test
+    void ifRangeWithAnotherETagGetsTheWholeFile() throws Exception {
+        MockHttpServletResponse response = fetch("bytes=0-99", "\"" + "0".repeat(64) + "\"");
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isNull();
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void ifRangeWithAWeakETagGetsTheWholeFile() throws Exception {
+        MockHttpServletResponse response = fetch("bytes=0-99", "W/\"" + hash + "\"");
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void ifRangeWithTheLastModifiedDateGetsTheRange() throws Exception {
+        String lastModified = fetch(null, null).getHeader(HttpHeaders.LAST_MODIFIED);
+
+        MockHttpServletResponse matching = fetch("bytes=0-99", lastModified);
+        assertThat(matching.getStatus()).isEqualTo(206);
+
+        MockHttpServletResponse stale = fetch("bytes=0-99", "Thu, 01 Jan 2015 00:00:00 GMT");
+        assertThat(stale.getStatus()).isEqualTo(200);
+        assertThat(stale.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void headHasTheHeadersButNoBody() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(head("/images/" + hash + ".jpg")
+                        .with(user("admin").roles("ADMIN")))
+                .andReturn().getResponse();
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_LENGTH)).isEqualTo(String.valueOf(IMAGE_BYTES));
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"" + hash + "\"");
+        assertThat(response.getContentType()).isEqualTo("image/jpeg");
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void headWithRangeReportsThePartialLength() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(head("/images/" + hash + ".jpg")
+                        .header(HttpHeaders.RANGE, "bytes=0-99")
+                        .with(user("admin").roles("ADMIN")))
+                .andReturn().getResponse();
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_LENGTH)).isEqualTo("100");
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    private MockHttpServletResponse fetch(String range, String ifRange) throws Exception {
+        var request = get("/images/" + hash + ".jpg").with(user("admin").roles("ADMIN"));
+        if (range != null) request.header(HttpHeaders.RANGE, range);
+        if (ifRange != null) request.header(HttpHeaders.IF_RANGE, ifRange);
+        return mockMvc.perform(request).andReturn().getResponse();
+    }
+}
@@ -0,0 +1,155 @@
+package com.deepantechjournal.practiceweb.controllers;
+
+import com.deepantechjournal.practiceweb.security.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Compares ImageController with the resource handler /images/** used to be mapped to (kept here under
+// /legacy-images/**), over real HTTP. Prints requests per second for full and revalidating GETs.
+// Takes about a minute, so it only runs when asked for: mvn test -Dbenchmark=true -Dtest=ImageServingBenchmarkTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ImageServingBenchmarkTest {
+
+    private static final int IMAGE_BYTES = 512 * 1024;
+    private static final int CLIENTS = 8;
+    private static final int REQUESTS_PER_CLIENT = 40;
+    private static final int ROUNDS = 3;
+
+    @TestConfiguration
+    static class LegacyResourceHandler implements WebMvcConfigurer {
+
+        @Value("${app.storage.product-images-dir}")
+        private String productImagesDir;
+
+        @Override
+        public void addResourceHandlers(ResourceHandlerRegistry registry) {
+            registry.addResourceHandler("/legacy-images/**")
+                    .addResourceLocations("file:" + Paths.get(productImagesDir).toFile().getAbsolutePath() + "/");
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${app.storage.product-images-dir}")
+    private String productImagesDir;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private String token;
+    private String fileName;
+    private byte[] content;
+
+    @BeforeEach
+    void storeImage() throws Exception {
+        token = jwtService.generateToken(userDetailsService.loadUserByUsername("admin@testcrafthub.com"));
+        content = new byte[IMAGE_BYTES];
+        new Random(42).nextBytes(content);
+        fileName = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content)) + ".jpg";
+        Path dir = Paths.get(productImagesDir);
+        Files.createDirectories(dir);
+        Files.write(dir.resolve(fileName), content);
+    }
+
+    @Test
+    void imageControllerAgainstLegacyResourceHandler() throws Exception {
+        HttpResponse<byte[]> current = get("/images/" + fileName, null);
+        HttpResponse<byte[]> legacy = get("/legacy-images/" + fileName, null);
+        assertThat(current.statusCode()).isEqualTo(200);
+        assertThat(legacy.statusCode()).isEqualTo(200);
+        assertThat(current.body()).isEqualTo(content);
+        assertThat(legacy.body()).isEqualTo(content);
+        assertThat(current.headers().firstValue("Cache-Control")).hasValueSatisfying(value ->
+                assertThat(value).contains("immutable").contains("private"));
+
+        String lastModified = current.headers().firstValue("Last-Modified").orElseThrow();
+        HttpResponse<byte[]> revalidated = get("/images/" + fileName, lastModified);
+        assertThat(revalidated.statusCode()).isEqualTo(304);
+
+        // warm up both paths before measuring
+        run("/images/" + fileName, null, 1);
+        run("/legacy-images/" + fileName, null, 1);
+
+        report("full GET", "/images/", "/legacy-images/", null);
+        report("If-Modified-Since", "/images/", "/legacy-images/", lastModified);
+    }
+
+    // The two paths take turns over several rounds and the best round of each is reported, so JIT
+    // warm-up and noise from other processes do not favour whichever happens to run second.
+    private void report(String label, String currentPath, String legacyPath, String ifModifiedSince) throws Exception {
+        double current = 0;
+        double legacy = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            current = Math.max(current, run(currentPath + fileName, ifModifiedSince, REQUESTS_PER_CLIENT));
+            legacy = Math.max(legacy, run(legacyPath + fileName, ifModifiedSince, REQUESTS_PER_CLIENT));
+        }
+        System.out.println("Image serving, " + label + " of " + IMAGE_BYTES / 1024 + " KB, " + CLIENTS + " clients: ImageController "
+                + Math.round(current) + " req/s, resource handler " + Math.round(legacy) + " req/s");
+    }
+
+    // requests per second over CLIENTS concurrent clients
+    private double run(String path, String ifModifiedSince, int requestsPerClient) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            long started = System.nanoTime();
+            List<Future<?>> clients = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.add(pool.submit(() -> {
+                    for (int i = 0; i < requestsPerClient; i++) {
+                        int status = get(path, ifModifiedSince).statusCode();
+                        assertThat(status).isIn(200, 304);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : clients) {
+                future.get();
+            }
+            return CLIENTS * requestsPerClient / ((System.nanoTime() - started) / 1e9);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private HttpResponse<byte[]> get(String path, String ifModifiedSince) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", "Bearer " + token);
+        if (ifModifiedSince != null) request.header("If-Modified-Since", ifModifiedSince);
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+}
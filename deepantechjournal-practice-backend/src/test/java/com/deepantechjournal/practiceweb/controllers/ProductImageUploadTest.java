@@ -0,0 +1,219 @@
+package com.deepantechjournal.practiceweb.controllers;
+
+import com.deepantechjournal.practiceweb.models.Product;
+import com.deepantechjournal.practiceweb.repositories.ImageBlobRepository;
+import com.deepantechjournal.practiceweb.repositories.ProductRepository;
+import com.deepantechjournal.practiceweb.services.ImageStorageService;
+import com.deepantechjournal.practiceweb.services.UploadRejectedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.endsWith;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Size and type limits on product image uploads, and that a rejected or broken upload leaves no file behind.
+@SpringBootTest(properties = {
+        "app.uploads.limits.product-image=64KB",
+        "app.uploads.limits.file=64KB"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductImageUploadTest {
+
+    private static final int LIMIT = 64 * 1024;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ImageBlobRepository blobRepository;
+
+    @Autowired
+    private ImageStorageService imageStorageService;
+
+    @Value("${app.storage.product-images-dir}")
+    private String productImagesDir;
+
+    private Product product;
+
+    @BeforeEach
+    void createProduct() {
+        product = productRepository.save(Product.builder()
+                .name("Upload " + UUID.randomUUID())
+                .price(BigDecimal.ONE)
+                .stock(1)
+                .build());
+    }
+
+    @Test
+    void imageIsTypedByContentNotByName() throws Exception {
+        byte[] png = png();
+        List<String> before = storedFiles();
+
+        mockMvc.perform(multipart("/api/products/{id}/images", product.getId())
+                        .file(new MockMultipartFile("file", "photo.jpg", "image/jpeg", png))
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.imageUrl").value(endsWith(".png")));
+
+        assertThat(storedFiles()).hasSize(before.size() + 1);
+        assertNoPartialFiles();
+    }
+
+    @Test
+    void spoofedImageIsRejected() throws Exception {
+        byte[] html = "<html><script>alert(1)</script></html>".getBytes(StandardCharsets.UTF_8);
+        List<String> before = storedFiles();
+
+        mockMvc.perform(multipart("/api/products/{id}/images", product.getId())
+                        .file(new MockMultipartFile("file", "photo.jpg", "image/jpeg", html))
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isUnsupportedMediaType());
+        mockMvc.perform(post("/api/products/{id}/images", product.getId())
+                        .contentType(MediaType.IMAGE_PNG)
+                        .content(html)
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isUnsupportedMediaType());
+
+        assertThat(storedFiles()).isEqualTo(before);
+        assertNoPartialFiles();
+    }
+
+    @Test
+    void oversizedImageIsRejected() throws Exception {
+        byte[] tooLarge = Arrays.copyOf(png(), LIMIT + 1);
+        List<String> before = storedFiles();
+
+        mockMvc.perform(multipart("/api/products/{id}/images", product.getId())
+                        .file(new MockMultipartFile("file", "big.png", "image/png", tooLarge))
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isPayloadTooLarge());
+        // refused from Content-Length before the body is read
+        mockMvc.perform(post("/api/products/{id}/images", product.getId())
+                        .contentType(MediaType.IMAGE_PNG)
+                        .content(tooLarge)
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isPayloadTooLarge());
+        mockMvc.perform(post("/api/files/upload")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(tooLarge)
+                        .with(user("reader")))
+                .andExpect(status().isPayloadTooLarge());
+
+        assertThat(storedFiles()).isEqualTo(before);
+        assertNoPartialFiles();
+    }
+
+    // a body without a usable length (chunked) is cut off as soon as it crosses the limit
+    @Test
+    void streamOverTheLimitIsAbortedAndRemoved() throws Exception {
+        long blobs = blobRepository.count();
+        List<String> before = storedFiles();
+        InputStream endless = new InputStream() {
+            private final byte[] header = png();
+            private long position;
+
+            @Override
+            public int read() {
+                return position < header.length ? header[(int) position++] & 0xFF : (int) (position++ & 0x7F);
+            }
+        };
+
+        assertThatThrownBy(() -> imageStorageService.store(product, endless))
+                .isInstanceOfSatisfying(UploadRejectedException.class,
+                        e -> assertThat(e.getReason()).isEqualTo(UploadRejectedException.Reason.TOO_LARGE));
+
+        assertThat(storedFiles()).isEqualTo(before);
+        assertThat(blobRepository.count()).isEqualTo(blobs);
+        assertNoPartialFiles();
+    }
+
+    @Test
+    void uploadCutOffPartwayLeavesNoFile() throws Exception {
+        long blobs = blobRepository.count();
+        List<String> before = storedFiles();
+        byte[] png = png();
+        // what the servlet container does when the client goes away mid-body
+        InputStream broken = new InputStream() {
+            private final InputStream half = new ByteArrayInputStream(png, 0, png.length / 2);
+
+            @Override
+            public int read() throws IOException {
+                int read = half.read();
+                if (read < 0) throw new EOFException("Connection reset by peer");
+                return read;
+            }
+        };
+
+        assertThatThrownBy(() -> imageStorageService.store(product, broken)).isInstanceOf(EOFException.class);
+
+        assertThat(storedFiles()).isEqualTo(before);
+        assertThat(blobRepository.count()).isEqualTo(blobs);
+        assertNoPartialFiles();
+    }
+
+    private void assertNoPartialFiles() throws IOException {
+        Path incoming = Paths.get(productImagesDir).resolve("incoming");
+        if (!Files.isDirectory(incoming)) return;
+        try (Stream<Path> files = Files.list(incoming)) {
+            assertThat(files).as("partial uploads").isEmpty();
+        }
+    }
+
+    private List<String> storedFiles() throws IOException {
+        Path dir = Paths.get(productImagesDir);
+        if (!Files.isDirectory(dir)) return List.of();
+        try (Stream<Path> files = Files.list(dir)) {
+            // thumbnails are left out: they appear whenever the background pool gets to them
+            return files.filter(Files::isRegularFile)
+                    .map(path -> path.getFileName().toString())
+                    .filter(name -> !name.contains("_thumb"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    // distinct per call, so uploads are never deduplicated against an earlier test's file
+    private static byte[] png() throws IOException {
+        BufferedImage image = new BufferedImage(32, 32, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(0, 0, UUID.randomUUID().hashCode());
+        image.setRGB(1, 0, UUID.randomUUID().hashCode());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,85 @@
+package com.deepantechjournal.practiceweb.controllers;
+
+import com.deepantechjournal.practiceweb.SqlStatementCounter;
+import com.deepantechjournal.practiceweb.models.Category;
+import com.deepantechjournal.practiceweb.models.Product;
+import com.deepantechjournal.practiceweb.repositories.CategoryRepository;
+import com.deepantechjournal.practiceweb.repositories.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Each product read is one joined statement, however many products and categories it returns.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductReadQueryCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private final List<UUID> productIds = new ArrayList<>();
+
+    @BeforeEach
+    void createProducts() {
+        for (int i = 0; i < 5; i++) {
+            Category category = categoryRepository.save(Category.builder()
+                    .name("Query count " + UUID.randomUUID())
+                    .build());
+            Product product = productRepository.save(Product.builder()
+                    .name("Product " + i)
+                    .price(BigDecimal.valueOf(10 + i))
+                    .stock(i)
+                    .category(category)
+                    .build());
+            productIds.add(product.getId());
+        }
+    }
+
+    @Test
+    void getAllRunsOneStatement() throws Exception {
+        assertStatements(get("/api/products").param("size", "50").with(user("reader")));
+    }
+
+    @Test
+    void getByIdRunsOneStatement() throws Exception {
+        // a product never read before, so the read cache has to load it
+        assertStatements(get("/api/products/{id}", productIds.get(productIds.size() - 1)).with(user("reader")));
+    }
+
+    @Test
+    void debugListingRunsOneStatement() throws Exception {
+        assertStatements(get("/api/debug/db/products").with(user("admin").roles("ADMIN")));
+    }
+
+    private void assertStatements(RequestBuilder request) throws Exception {
+        SqlStatementCounter.start();
+        try {
+            mockMvc.perform(request).andExpect(status().isOk());
+        } finally {
+            List<String> statements = SqlStatementCounter.stop();
+            assertThat(statements).as("SQL statements").hasSize(1);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.deepantechjournal.practiceweb.services;
+
+import com.deepantechjournal.practiceweb.dto.BulkImportResult;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkImportJobTest {
+
+    @Test
+    void cancelAfterTheLastRowStillCompletes() {
+        BulkImportJob job = runningJob();
+        job.cancel();
+        job.complete(result(false));
+
+        assertThat(job.getStatus()).isEqualTo(BulkImportJob.Status.COMPLETED);
+    }
+
+    @Test
+    void importCutShortIsCancelled() {
+        BulkImportJob job = runningJob();
+        job.cancel();
+        job.complete(result(true));
+
+        assertThat(job.getStatus()).isEqualTo(BulkImportJob.Status.CANCELLED);
+    }
+
+    @Test
+    void cancelWhileQueuedIsCancelled() {
+        BulkImportJob job = new BulkImportJob("job", ImportFormat.CSV, ImportMode.INSERT, "products.csv");
+        job.cancel();
+
+        assertThat(job.start()).isFalse();
+        assertThat(job.getStatus()).isEqualTo(BulkImportJob.Status.CANCELLED);
+    }
+
+    private static BulkImportJob runningJob() {
+        BulkImportJob job = new BulkImportJob("job", ImportFormat.CSV, ImportMode.INSERT, "products.csv");
+        assertThat(job.start()).isTrue();
+        return job;
+    }
+
+    private static BulkImportResult result(boolean cancelled) {
+        return new BulkImportResult(10, 0, 0, 0, 0, null, 10, 5, 2000.0, cancelled);
+    }
+}
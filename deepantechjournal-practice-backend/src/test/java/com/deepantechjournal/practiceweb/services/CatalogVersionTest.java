@@ -0,0 +1,51 @@
+package com.deepantechjournal.practiceweb.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogVersionTest {
+
+    @Test
+    void changeInTheCurrentSecondIsNotMatchedByDate() {
+        CatalogVersion version = new CatalogVersion();
+        version.onProductsChanged(ProductsChangedEvent.of(List.of()));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertThat(version.checkNotModified(request(System.currentTimeMillis(), response), null)).isFalse();
+        assertThat(response.getHeader(HttpHeaders.LAST_MODIFIED)).isNull();
+    }
+
+    @Test
+    void lastModifiedIsTheChangeTimeAndNeverInTheFuture() throws Exception {
+        CatalogVersion version = new CatalogVersion();
+        // many changes in a row must not push the date forward
+        for (int i = 0; i < 1000; i++) {
+            version.onProductsChanged(ProductsChangedEvent.of(List.of()));
+        }
+        Thread.sleep(1100);
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        version.checkNotModified(new ServletWebRequest(new MockHttpServletRequest("GET", "/"), first), null);
+        long lastModified = first.getDateHeader(HttpHeaders.LAST_MODIFIED);
+        assertThat(lastModified).isPositive().isLessThanOrEqualTo(System.currentTimeMillis());
+
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        assertThat(version.checkNotModified(request(lastModified, second), null)).isTrue();
+
+        version.onProductsChanged(ProductsChangedEvent.of(List.of()));
+        assertThat(version.checkNotModified(request(lastModified, new MockHttpServletResponse()), null)).isFalse();
+    }
+
+    private static ServletWebRequest request(long ifModifiedSince, MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, ifModifiedSince);
+        return new ServletWebRequest(request, response);
+    }
+}
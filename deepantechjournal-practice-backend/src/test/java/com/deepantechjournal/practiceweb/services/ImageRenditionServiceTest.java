@@ -0,0 +1,63 @@
+package com.deepantechjournal.practiceweb.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageRenditionServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private ImageRenditionService service;
+    private Path original;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // a one byte cache keeps only the newest rendition, so every render evicts the previous one
+        service = new ImageRenditionService(null, dir.resolve("renditions").toString(), DataSize.ofBytes(1),
+                2000, 0.85f, 1, 10);
+        service.loadCache();
+        original = dir.resolve("original.png");
+        ImageIO.write(new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB), "png", original.toFile());
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void renditionEvictedAfterItWasHandedOutIsStillSent() throws Exception {
+        ImageRenditionService.Rendition first = service.render(original, 32, null, "png").join();
+        ImageRenditionService.Rendition second = service.render(original, 16, null, "png").join();
+
+        try (InputStream in = first.stream()) {
+            byte[] bytes = in.readAllBytes();
+            assertThat(bytes).hasSize((int) first.size());
+            assertThat(ImageIO.read(new ByteArrayInputStream(bytes)).getWidth()).isEqualTo(32);
+        }
+        second.stream().close();
+        assertThat(service.stats()).containsEntry("files", 1);
+    }
+
+    @Test
+    void evictedRenditionIsRenderedAgain() throws Exception {
+        service.render(original, 32, null, "png").join().stream().close();
+        service.render(original, 16, null, "png").join().stream().close();
+
+        try (InputStream in = service.render(original, 32, null, "png").join().stream()) {
+            assertThat(ImageIO.read(in).getWidth()).isEqualTo(32);
+        }
+    }
+}
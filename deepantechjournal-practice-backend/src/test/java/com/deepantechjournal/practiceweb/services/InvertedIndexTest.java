@@ -0,0 +1,49 @@
+package com.deepantechjournal.practiceweb.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTest {
+
+    @Test
+    void unchangedTextIsNotReindexed() {
+        InvertedIndex index = new InvertedIndex();
+        UUID id = UUID.randomUUID();
+
+        assertThat(index.put(id, "Red kettle", "Kitchen", null)).isTrue();
+        assertThat(index.put(id, "Red kettle", "Kitchen", null)).isFalse();
+        assertThat(index.put(id, "Red kettle", "Kitchen", "")).isTrue();
+        assertThat(index.search("kettle", 10)).extracting(InvertedIndex.Hit::productId).containsExactly(id);
+    }
+
+    @Test
+    void searchSurvivesSweepsAfterManyUpdates() {
+        InvertedIndex index = new InvertedIndex();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            index.put(id, "Product " + i, "Category " + (i % 10), "initial");
+        }
+        // enough updates to sweep and renumber several times
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < ids.size(); i++) {
+                index.put(ids.get(i), "Product " + i, "Category " + (i % 10), "round" + round);
+            }
+        }
+
+        assertThat(index.size()).isEqualTo(5_000);
+        assertThat(index.search("initial", 10)).isEmpty();
+        assertThat(index.search("round8", 10)).isEmpty();
+        assertThat(index.search("round9", 10_000)).hasSize(5_000);
+        assertThat(index.search("product 4321", 10))
+                .extracting(InvertedIndex.Hit::productId)
+                .first()
+                .isEqualTo(ids.get(4321));
+    }
+}
@@ -0,0 +1,161 @@
+package com.deepantechjournal.practiceweb.services;
+
+import com.deepantechjournal.practiceweb.models.Product;
+import com.deepantechjournal.practiceweb.repositories.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StockReservationServiceTest {
+
+    private static final int INITIAL_STOCK = 500;
+    private static final int BUYERS = 64;
+    private static final int ATTEMPTS_PER_BUYER = 50;
+
+    @Autowired
+    private StockReservationService reservationService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Many buyers on one SKU, each reserving and then releasing or confirming. Stock must never go
+    // negative, and every unit must be accounted for as in stock, reserved or sold.
+    @Test
+    void concurrentBuyersNeverOversellOrLoseReservations() throws Exception {
+        UUID productId = newProduct(INITIAL_STOCK);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger released = new AtomicInteger();
+        AtomicInteger confirmed = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        AtomicInteger negativeStockSeen = new AtomicInteger();
+        List<StockReservation> held = new CopyOnWriteArrayList<>();
+
+        ExecutorService pool = Executors.newFixedThreadPool(BUYERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> buyers = new ArrayList<>();
+        for (int b = 0; b < BUYERS; b++) {
+            String owner = "buyer-" + b;
+            buyers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_BUYER; i++) {
+                    StockReservationService.Outcome outcome = reservationService.reserve(productId, 1 + i % 3, owner);
+                    if (outcome.available() < 0) negativeStockSeen.incrementAndGet();
+                    if (outcome.status() != StockReservationService.Status.RESERVED) {
+                        refused.incrementAndGet();
+                        continue;
+                    }
+                    reserved.incrementAndGet();
+                    StockReservation reservation = outcome.reservation();
+                    switch (i % 3) {
+                        case 0 -> {
+                            assertThat(reservationService.release(reservation.id(), owner)).isPresent();
+                            released.incrementAndGet();
+                        }
+                        case 1 -> {
+                            assertThat(reservationService.confirm(reservation.id(), owner)).isPresent();
+                            confirmed.addAndGet(reservation.quantity());
+                        }
+                        default -> held.add(reservation);
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long started = System.nanoTime();
+        start.countDown();
+        for (Future<?> buyer : buyers) {
+            buyer.get(2, TimeUnit.MINUTES);
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        pool.shutdown();
+
+        int stock = stock(productId);
+        int heldUnits = held.stream().mapToInt(StockReservation::quantity).sum();
+        System.out.printf("Stock contention: %d buyers, %d reserve calls in %.2f s (%.0f calls/s); "
+                        + "%d reserved, %d released, %d refused, %d units sold, %d units held, %d in stock%n",
+                BUYERS, BUYERS * ATTEMPTS_PER_BUYER, seconds, BUYERS * ATTEMPTS_PER_BUYER / seconds,
+                reserved.get(), released.get(), refused.get(), confirmed.get(), heldUnits, stock);
+
+        assertThat(negativeStockSeen.get()).isZero();
+        assertThat(stock).isGreaterThanOrEqualTo(0);
+        assertThat(reserved.get() + refused.get()).isEqualTo(BUYERS * ATTEMPTS_PER_BUYER);
+        assertThat(refused.get()).as("the sale should sell out").isPositive();
+        assertThat(stock + heldUnits + confirmed.get()).isEqualTo(INITIAL_STOCK);
+        assertThat(reservationCount(productId)).isEqualTo(held.size());
+    }
+
+    // A new service instance stands in for a restart: the reservation is only known from the table.
+    @Test
+    void expiryRestoresStockOfReservationsFromBeforeARestart() throws Exception {
+        UUID productId = newProduct(10);
+        StockReservationService.Outcome outcome = reservationService.reserve(productId, 4, "buyer");
+        assertThat(outcome.status()).isEqualTo(StockReservationService.Status.RESERVED);
+        assertThat(stock(productId)).isEqualTo(6);
+
+        jdbcTemplate.update("UPDATE stock_reservations SET expires_at = DATEADD('MINUTE', -1, CURRENT_TIMESTAMP) WHERE id = ?",
+                outcome.reservation().id());
+        StockReservationService restarted = new StockReservationService(jdbcTemplate, transactionManager,
+                eventPublisher, 600, 2000);
+        restarted.releaseExpired();
+
+        assertThat(stock(productId)).isEqualTo(10);
+        assertThat(reservationCount(productId)).isZero();
+        Optional<StockReservation> late = reservationService.confirm(outcome.reservation().id(), "buyer");
+        assertThat(late).isEmpty();
+    }
+
+    @Test
+    void onlyTheOwnerCanReleaseOrConfirm() throws Exception {
+        UUID productId = newProduct(5);
+        StockReservation reservation = reservationService.reserve(productId, 2, "buyer").reservation();
+
+        assertThat(reservationService.release(reservation.id(), "someone-else")).isEmpty();
+        assertThat(reservationService.confirm(reservation.id(), "someone-else")).isEmpty();
+        assertThat(reservationService.release(reservation.id(), "buyer")).isPresent();
+        assertThat(reservationService.release(reservation.id(), "buyer")).isEmpty();
+        assertThat(stock(productId)).isEqualTo(5);
+    }
+
+    private UUID newProduct(int stock) {
+        return productRepository.save(Product.builder()
+                .name("Flash sale " + UUID.randomUUID())
+                .price(BigDecimal.TEN)
+                .stock(stock)
+                .build()).getId();
+    }
+
+    private int stock(UUID productId) {
+        return jdbcTemplate.queryForObject("SELECT stock FROM products WHERE id = ?", Integer.class, productId);
+    }
+
+    private int reservationCount(UUID productId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stock_reservations WHERE product_id = ?",
+                Integer.class, productId);
+    }
+}